@@ -0,0 +1,168 @@
+package org.legend8883.competencytestingsystem.benchmark;
+
+import org.legend8883.competencytestingsystem.dto.request.AnswerOptionRequest;
+import org.legend8883.competencytestingsystem.dto.request.CreateTestRequest;
+import org.legend8883.competencytestingsystem.dto.request.QuestionRequest;
+import org.legend8883.competencytestingsystem.entity.Answer;
+import org.legend8883.competencytestingsystem.entity.AnswerOption;
+import org.legend8883.competencytestingsystem.entity.Attempt;
+import org.legend8883.competencytestingsystem.entity.AttemptStatus;
+import org.legend8883.competencytestingsystem.entity.Question;
+import org.legend8883.competencytestingsystem.entity.QuestionType;
+import org.legend8883.competencytestingsystem.entity.Role;
+import org.legend8883.competencytestingsystem.entity.Test;
+import org.legend8883.competencytestingsystem.entity.User;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Данные для бенчмарков: стартовый тест из tests/java_test_50_questions.json
+ * в виде сущностей с id и завершенная попытка с ответом на каждый вопрос.
+ * Выбор ответов детерминирован (фиксированный seed), чтобы прогоны на разных
+ * коммитах сравнивались на одних и тех же данных.
+ */
+public final class BenchmarkFixtures {
+
+    private static final String TEST_RESOURCE = "tests/java_test_50_questions.json";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static CreateTestRequest readDefaultTest() {
+        try (InputStream is = BenchmarkFixtures.class.getClassLoader().getResourceAsStream(TEST_RESOURCE)) {
+            if (is == null) {
+                throw new IllegalStateException("Resource not found: " + TEST_RESOURCE);
+            }
+            return JsonMapper.builder().build().readValue(is, CreateTestRequest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static User hr() {
+        User hr = new User();
+        hr.setId(1L);
+        hr.setEmail("hr@example.com");
+        hr.setFirstName("Анна");
+        hr.setLastName("Иванова");
+        hr.setRole(Role.HR);
+        return hr;
+    }
+
+    public static Test defaultTest() {
+        CreateTestRequest request = readDefaultTest();
+
+        Test test = new Test();
+        test.setId(10L);
+        test.setTitle(request.getTitle());
+        test.setDescription(request.getDescription());
+        test.setTimeLimitMinutes(request.getTimeLimitMinutes());
+        test.setPassingScore(request.getPassingScore());
+        test.setCreatedBy(hr());
+        test.setCreatedAt(LocalDateTime.of(2025, 1, 1, 9, 0));
+
+        long optionId = 1_000;
+        int maxScore = 0;
+        boolean open = false;
+        for (int i = 0; i < request.getQuestions().size(); i++) {
+            QuestionRequest questionRequest = request.getQuestions().get(i);
+
+            Question question = new Question();
+            question.setId(100L + i);
+            question.setText(questionRequest.getText());
+            question.setType(QuestionType.valueOf(questionRequest.getType()));
+            question.setMaxScore(questionRequest.getMaxScore());
+            question.setCorrectOpenAnswer(questionRequest.getCorrectOpenAnswer());
+            question.setOrderIndex(i);
+            question.setTest(test);
+
+            if (question.isChoiceQuestion() && questionRequest.getOptions() != null) {
+                for (int j = 0; j < questionRequest.getOptions().size(); j++) {
+                    AnswerOptionRequest optionRequest = questionRequest.getOptions().get(j);
+                    AnswerOption option = new AnswerOption();
+                    option.setId(optionId++);
+                    option.setText(optionRequest.getText());
+                    option.setIsCorrect(optionRequest.getIsCorrect());
+                    option.setOrderIndex(j);
+                    option.setQuestion(question);
+                    question.getOptions().add(option);
+                }
+            }
+
+            test.getQuestions().add(question);
+            maxScore += question.getMaxScore();
+            open |= question.getType() == QuestionType.OPEN_ANSWER;
+        }
+
+        test.setQuestionCount(test.getQuestions().size());
+        test.setMaxPossibleScore(maxScore);
+        test.setHasOpenQuestions(open);
+        return test;
+    }
+
+    // Выбор вариантов: примерно половина ответов верные, остальные - случайные
+    public static List<Long> selectOptions(Question question, Random random) {
+        List<Long> selected = new ArrayList<>();
+        for (AnswerOption option : question.getOptions()) {
+            boolean pick = random.nextBoolean() ? option.getIsCorrect() : random.nextInt(3) == 0;
+            if (pick) {
+                selected.add(option.getId());
+            }
+        }
+        if (selected.isEmpty() && !question.getOptions().isEmpty()) {
+            selected.add(question.getOptions().get(0).getId());
+        }
+        if (question.getType() == QuestionType.SINGLE_CHOICE && selected.size() > 1) {
+            return List.of(selected.get(0));
+        }
+        return selected;
+    }
+
+    public static Attempt completedAttempt(Test test) {
+        Random random = new Random(8883);
+
+        User employee = new User();
+        employee.setId(2L);
+        employee.setEmail("employee@example.com");
+        employee.setFirstName("Петр");
+        employee.setLastName("Смирнов");
+        employee.setRole(Role.EMPLOYEE);
+
+        Attempt attempt = new Attempt();
+        attempt.setId(500L);
+        attempt.setUser(employee);
+        attempt.setTest(test);
+        attempt.setStatus(AttemptStatus.COMPLETED);
+        attempt.setStartedAt(LocalDateTime.of(2025, 1, 2, 10, 0));
+        attempt.setAutoSubmitAt(attempt.getStartedAt().plusMinutes(test.getTimeLimitMinutes()));
+        attempt.setCompletedAt(attempt.getStartedAt().plusMinutes(42));
+
+        long answerId = 5_000;
+        int score = 0;
+        for (Question question : test.getQuestions()) {
+            Answer answer = new Answer();
+            answer.setId(answerId++);
+            answer.setAttempt(attempt);
+            answer.setQuestion(question);
+            answer.setAnsweredAt(attempt.getStartedAt().plusSeconds(answerId % 2_400));
+            if (question.isChoiceQuestion()) {
+                answer.setSelectedOptionIds(selectOptions(question, random));
+                answer.setAutoScore(random.nextInt(question.getMaxScore() + 1));
+            } else {
+                answer.setOpenAnswerText("Развернутый ответ сотрудника на вопрос " + question.getOrderIndex());
+                answer.setAssignedScore(random.nextInt(question.getMaxScore() + 1));
+            }
+            score += answer.getAssignedScore() != null ? answer.getAssignedScore() : answer.getAutoScore();
+            attempt.getAnswers().add(answer);
+        }
+        attempt.setScore(score);
+        return attempt;
+    }
+}
@@ -0,0 +1,91 @@
+package org.legend8883.competencytestingsystem.benchmark;
+
+import org.legend8883.competencytestingsystem.dto.response.AnswerResponse;
+import org.legend8883.competencytestingsystem.dto.response.AttemptResponse;
+import org.legend8883.competencytestingsystem.dto.response.TestResponse;
+import org.legend8883.competencytestingsystem.dto.response.TestResultResponse;
+import org.legend8883.competencytestingsystem.entity.Answer;
+import org.legend8883.competencytestingsystem.entity.Attempt;
+import org.legend8883.competencytestingsystem.entity.Test;
+import org.legend8883.competencytestingsystem.mapper.AnswerMapper;
+import org.legend8883.competencytestingsystem.mapper.AttemptMapper;
+import org.legend8883.competencytestingsystem.mapper.TestMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сгенерированные MapStruct-мапперы. Реализации связаны друг с другом через Spring,
+ * поэтому берутся из минимального контекста с одним пакетом mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private TestMapper testMapper;
+    private AttemptMapper attemptMapper;
+    private AnswerMapper answerMapper;
+
+    private Test test;
+    private Attempt attempt;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext("org.legend8883.competencytestingsystem.mapper");
+        testMapper = context.getBean(TestMapper.class);
+        attemptMapper = context.getBean(AttemptMapper.class);
+        answerMapper = context.getBean(AnswerMapper.class);
+
+        test = BenchmarkFixtures.defaultTest();
+        attempt = BenchmarkFixtures.completedAttempt(test);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Тест с вопросами и вариантами (страница теста HR)
+    @Benchmark
+    public TestResponse testToDto() {
+        return testMapper.toDto(test);
+    }
+
+    // Строка списка тестов
+    @Benchmark
+    public TestResponse testToSummaryDto() {
+        return testMapper.toSummaryDto(test);
+    }
+
+    @Benchmark
+    public AttemptResponse attemptToResponse() {
+        return attemptMapper.toAttemptResponse(attempt);
+    }
+
+    @Benchmark
+    public TestResultResponse attemptToResultDto() {
+        return attemptMapper.toResultDto(attempt);
+    }
+
+    // Все ответы попытки
+    @Benchmark
+    public List<AnswerResponse> answersToDto() {
+        List<AnswerResponse> responses = new ArrayList<>(attempt.getAnswers().size());
+        for (Answer answer : attempt.getAnswers()) {
+            responses.add(answerMapper.toDto(answer));
+        }
+        return responses;
+    }
+}
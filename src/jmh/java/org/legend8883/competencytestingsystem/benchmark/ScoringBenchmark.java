@@ -0,0 +1,68 @@
+package org.legend8883.competencytestingsystem.benchmark;
+
+import org.legend8883.competencytestingsystem.blueprint.ChoiceScoringEngine;
+import org.legend8883.competencytestingsystem.blueprint.QuestionBlueprint;
+import org.legend8883.competencytestingsystem.blueprint.TestBlueprint;
+import org.legend8883.competencytestingsystem.entity.Question;
+import org.legend8883.competencytestingsystem.entity.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подсчет баллов так, как его делает AttemptService: снимок теста (TestBlueprint)
+ * и ChoiceScoringEngine по каждому CHOICE-вопросу.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScoringBenchmark {
+
+    private Test test;
+    private List<Question> questions;
+    private TestBlueprint blueprint;
+    private List<QuestionBlueprint> choiceQuestions;
+    private List<List<Long>> selections;
+
+    @Setup
+    public void setUp() {
+        test = BenchmarkFixtures.defaultTest();
+        questions = test.getQuestions();
+        blueprint = TestBlueprint.from(test, questions);
+
+        Random random = new Random(8883);
+        choiceQuestions = new ArrayList<>();
+        selections = new ArrayList<>();
+        for (Question question : questions) {
+            if (question.isChoiceQuestion()) {
+                choiceQuestions.add(blueprint.findQuestion(question.getId()).orElseThrow());
+                selections.add(BenchmarkFixtures.selectOptions(question, random));
+            }
+        }
+    }
+
+    // Полная попытка: все ответы теста
+    @Benchmark
+    public int scoreAttempt() {
+        int total = 0;
+        for (int i = 0; i < choiceQuestions.size(); i++) {
+            total += ChoiceScoringEngine.score(choiceQuestions.get(i), selections.get(i));
+        }
+        return total;
+    }
+
+    // Построение снимка при промахе TestBlueprintCache
+    @Benchmark
+    public TestBlueprint buildBlueprint() {
+        return TestBlueprint.from(test, questions);
+    }
+}
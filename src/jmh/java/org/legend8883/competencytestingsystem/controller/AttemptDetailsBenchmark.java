@@ -0,0 +1,55 @@
+package org.legend8883.competencytestingsystem.controller;
+
+import org.legend8883.competencytestingsystem.benchmark.BenchmarkFixtures;
+import org.legend8883.competencytestingsystem.entity.Answer;
+import org.legend8883.competencytestingsystem.entity.Attempt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка ответа /api/hr/attempts/{attemptId}/full: проверка правильности
+ * и маппинг каждого ответа попытки в Map (без обращений к БД).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AttemptDetailsBenchmark {
+
+    private List<Answer> answers;
+
+    @Setup
+    public void setUp() {
+        Attempt attempt = BenchmarkFixtures.completedAttempt(BenchmarkFixtures.defaultTest());
+        answers = attempt.getAnswers();
+    }
+
+    @Benchmark
+    public long countCorrectAnswers() {
+        long correct = 0;
+        for (Answer answer : answers) {
+            if (HrController.isAnswerCorrect(answer)) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> mapAnswers() {
+        List<Map<String, Object>> result = new ArrayList<>(answers.size());
+        for (Answer answer : answers) {
+            result.add(HrController.mapAnswerToFullMap(answer));
+        }
+        return result;
+    }
+}
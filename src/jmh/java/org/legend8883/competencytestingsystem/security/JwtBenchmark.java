@@ -0,0 +1,52 @@
+package org.legend8883.competencytestingsystem.security;
+
+import org.legend8883.competencytestingsystem.config.JwtProperties;
+import org.legend8883.competencytestingsystem.entity.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выпуск и проверка JWT. cacheSize=0 - каждая проверка разбирает токен
+ * и сверяет подпись, иначе повторные проверки попадают в JwtVerificationCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    @Param({"0", "10000"})
+    private int cacheSize;
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("benchmark-secret-key-benchmark-secret-key");
+        properties.setExpirationMs(86_400_000);
+        properties.setVerificationCacheSize(cacheSize);
+
+        jwtUtil = new JwtUtil(properties);
+        jwtUtil.init();
+        token = jwtUtil.generateToken(2L, "employee@example.com", Role.EMPLOYEE);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(2L, "employee@example.com", Role.EMPLOYEE);
+    }
+
+    @Benchmark
+    public JwtClaims verify() {
+        return jwtUtil.verify(token);
+    }
+}
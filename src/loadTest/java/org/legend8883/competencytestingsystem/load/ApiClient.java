@@ -0,0 +1,100 @@
+package org.legend8883.competencytestingsystem.load;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP-клиент сценариев: JSON-запросы к API с замером длительности по операции.
+ * Ответ с кодом не 2xx считается ошибкой и прерывает сценарий пользователя.
+ */
+public class ApiClient {
+
+    public static final String PASSWORD = "load-test-password";
+
+    private final String baseUrl;
+    private final LatencyStats latencies;
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final AtomicInteger failedRequests = new AtomicInteger();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public ApiClient(String baseUrl, LatencyStats latencies) {
+        this.baseUrl = baseUrl;
+        this.latencies = latencies;
+    }
+
+    public int failedRequests() {
+        return failedRequests.get();
+    }
+
+    // data из ApiResponse регистрации: token, userId, ...
+    public JsonNode register(String path, String email) throws Exception {
+        Map<String, Object> body = Map.of(
+                "email", email,
+                "firstName", "Load",
+                "lastName", "Test",
+                "password", PASSWORD,
+                "confirmPassword", PASSWORD);
+        return send("setup", "POST", path, null, body).path("data");
+    }
+
+    public String login(String email) throws Exception {
+        return send("login", "POST", "/api/auth/login", null,
+                Map.of("email", email, "password", PASSWORD)).path("data").path("token").asString();
+    }
+
+    // Назначить тест и дождаться фоновой задачи, если назначение ушло в фон
+    public void assign(String hrToken, long testId, Object userIds) throws Exception {
+        JsonNode job = send("setup", "POST", "/api/hr/tests/" + testId + "/assign", hrToken,
+                Map.of("userIds", userIds)).path("data");
+        while (!job.isNull() && !job.isMissingNode() && !"COMPLETED".equals(job.path("status").asString())) {
+            if ("FAILED".equals(job.path("status").asString())) {
+                throw new IllegalStateException("Assignment failed: " + job.path("error").asString());
+            }
+            Thread.sleep(500);
+            job = send("setup", "GET", "/api/hr/assignment-jobs/" + job.path("jobId").asString(),
+                    hrToken, null).path("data");
+        }
+    }
+
+    public JsonNode send(String operation, String method, String path, String token, Object body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        request.method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            failedRequests.incrementAndGet();
+            throw e;
+        }
+        latencies.record(operation, (System.nanoTime() - start) / 1_000);
+
+        if (response.statusCode() >= 300) {
+            failedRequests.incrementAndGet();
+            throw new IllegalStateException(method + " " + path + " -> " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
@@ -0,0 +1,229 @@
+package org.legend8883.competencytestingsystem.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.legend8883.competencytestingsystem.CompetencyTestingSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.JsonNode;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Экзаменационный день целиком на одной машине и без сети: встроенный PostgreSQL
+ * (бинарники из Maven-артефактов zonky), приложение в этом же процессе на случайном порту,
+ * HR и N сотрудников.
+ * <p>
+ * Сотрудники проходят тест с паузами на обдумывание, автосохраняют ответы пакетами
+ * и завершают попытку; параллельно HR проверяет открытые ответы и закрывает проверку.
+ * В отчете - задержки со стороны клиента по шагам сценария и со стороны сервера
+ * по эндпоинтам вместе с числом SQL на запрос.
+ * <p>
+ * Аргументы: число сотрудников (200), пауза на вопрос в мс (500), автосохранение
+ * каждые K ответов (5).
+ */
+public class ExamDaySimulation {
+
+    private static final int SETUP_CONCURRENCY = 50;
+
+    private final int users;
+    private final int thinkMs;
+    private final int autosaveEvery;
+    private final LatencyStats latencies = new LatencyStats();
+    private final AtomicInteger completedExams = new AtomicInteger();
+    private final AtomicInteger evaluatedAttempts = new AtomicInteger();
+
+    private ApiClient api;
+
+    public ExamDaySimulation(int users, int thinkMs, int autosaveEvery) {
+        this.users = users;
+        this.thinkMs = thinkMs;
+        this.autosaveEvery = autosaveEvery;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int thinkMs = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int autosaveEvery = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        new ExamDaySimulation(users, thinkMs, autosaveEvery).run();
+    }
+
+    public void run() throws Exception {
+        Path journalDir = Files.createTempDirectory("exam-day-journal");
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            // Системные свойства сильнее application.properties
+            System.setProperty("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            System.setProperty("spring.datasource.username", "postgres");
+            System.setProperty("spring.datasource.password", "postgres");
+            System.setProperty("server.port", "0");
+            System.setProperty("spring.jpa.show-sql", "false");
+            System.setProperty("app.session.journal-dir", journalDir.toString());
+
+            try (ConfigurableApplicationContext app = new SpringApplicationBuilder(
+                    CompetencyTestingSystemApplication.class, SimulationConfig.class).run()) {
+                String baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+                api = new ApiClient(baseUrl, latencies);
+
+                double seconds = simulate();
+
+                System.out.printf("%nExam day: %d employees, think time up to %d ms, autosave every %d answers%n",
+                        users, thinkMs, autosaveEvery);
+                System.out.printf("Duration %.1f s, %d exams completed, %d attempts evaluated, %d failed requests%n",
+                        seconds, completedExams.get(), evaluatedAttempts.get(), api.failedRequests());
+                latencies.print("Client side (per step)", List.of("login", "available", "start", "questions",
+                        "autosave", "complete", "hr-open-answers", "hr-evaluate", "hr-attempts", "hr-complete"));
+                app.getBean(RequestStatsFilter.class).print();
+            }
+        }
+    }
+
+    private double simulate() throws Exception {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        // Подготовка: HR (стартовый тест создается из шаблона), сотрудники, назначение
+        String hrEmail = "exam-hr-" + runId + "@example.com";
+        api.register("/api/auth/register-hr", hrEmail);
+        String hrToken = api.login(hrEmail);
+        long testId = api.send("setup", "GET", "/api/hr/tests", hrToken, null)
+                .path("data").get(0).path("id").asLong();
+
+        List<String> emails = new ArrayList<>();
+        Map<Integer, Long> idByIndex = new ConcurrentHashMap<>();
+        Semaphore setupLimit = new Semaphore(SETUP_CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                String email = "exam-" + runId + "-" + i + "@example.com";
+                emails.add(email);
+                int index = i;
+                executor.submit(() -> {
+                    setupLimit.acquire();
+                    try {
+                        idByIndex.put(index, api.register("/api/auth/register", email).path("userId").asLong());
+                    } finally {
+                        setupLimit.release();
+                    }
+                    return null;
+                });
+            }
+        }
+        api.assign(hrToken, testId, new ArrayList<>(idByIndex.values()));
+        latencies.clear("setup");
+        latencies.clear("login");
+
+        // Экзамен и проверка
+        long started = System.nanoTime();
+        AtomicBoolean examsFinished = new AtomicBoolean();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> evaluator = executor.submit(() -> {
+                evaluate(hrToken, examsFinished);
+                return null;
+            });
+
+            List<Future<?>> exams = new ArrayList<>();
+            for (String email : emails) {
+                exams.add(executor.submit(() -> {
+                    // Сотрудники подходят к экзамену в течение первых секунд, а не одновременно
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(Math.max(thinkMs * 4, 1)));
+                    takeExam(email, testId);
+                    return null;
+                }));
+            }
+            for (Future<?> exam : exams) {
+                exam.get();
+            }
+            examsFinished.set(true);
+            evaluator.get();
+        }
+        return (System.nanoTime() - started) / 1e9;
+    }
+
+    private void takeExam(String email, long testId) {
+        try {
+            String token = api.login(email);
+            api.send("available", "GET", "/api/employee/tests/available", token, null);
+
+            long attemptId = api.send("start", "POST", "/api/employee/tests/start", token,
+                    Map.of("testId", testId)).path("data").path("attemptId").asLong();
+            JsonNode questions = api.send("questions", "GET",
+                    "/api/employee/attempts/" + attemptId + "/questions", token, null).path("data");
+
+            List<Map<String, Object>> pending = new ArrayList<>();
+            for (JsonNode question : questions) {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(Math.max(thinkMs, 1)));
+                pending.add(ExamLoadTest.answerFor(question));
+                if (pending.size() == autosaveEvery) {
+                    autosave(token, attemptId, pending);
+                    pending = new ArrayList<>();
+                }
+            }
+            if (!pending.isEmpty()) {
+                autosave(token, attemptId, pending);
+            }
+
+            api.send("complete", "POST", "/api/employee/attempts/" + attemptId + "/complete", token, null);
+            completedExams.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Ошибка уже учтена в failedRequests
+        }
+    }
+
+    private void autosave(String token, long attemptId, List<Map<String, Object>> answers) throws Exception {
+        api.send("autosave", "POST", "/api/employee/attempts/" + attemptId + "/answers/batch", token,
+                Map.of("answers", answers));
+    }
+
+    // HR раз в секунду оценивает новые открытые ответы и закрывает проверенные попытки
+    private void evaluate(String hrToken, AtomicBoolean examsFinished) throws Exception {
+        Set<Long> evaluated = new HashSet<>();
+        while (true) {
+            boolean finished = examsFinished.get();
+            int before = evaluated.size() + evaluatedAttempts.get();
+
+            JsonNode openAnswers = api.send("hr-open-answers", "GET", "/api/hr/evaluation/open-answers",
+                    hrToken, null).path("data");
+            for (JsonNode answer : openAnswers) {
+                long answerId = answer.path("id").asLong();
+                if (answer.path("assignedScore").isNull() && evaluated.add(answerId)) {
+                    int score = ThreadLocalRandom.current().nextInt(answer.path("maxScore").asInt() + 1);
+                    api.send("hr-evaluate", "POST", "/api/hr/evaluation/answers/" + answerId, hrToken,
+                            Map.of("score", score));
+                }
+            }
+
+            JsonNode attempts = api.send("hr-attempts", "GET", "/api/hr/evaluation/attempts",
+                    hrToken, null).path("data");
+            for (JsonNode attempt : attempts) {
+                try {
+                    api.send("hr-complete", "POST",
+                            "/api/hr/evaluation/attempts/" + attempt.path("id").asLong() + "/complete", hrToken, null);
+                    evaluatedAttempts.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    // Ответы попытки появились после выборки - закроем на следующем круге
+                }
+            }
+
+            // Все экзамены сданы и очередь пуста (или больше не двигается)
+            boolean progress = evaluated.size() + evaluatedAttempts.get() > before;
+            if (finished && (attempts.isEmpty() || !progress)) {
+                return;
+            }
+            Thread.sleep(1_000);
+        }
+    }
+}
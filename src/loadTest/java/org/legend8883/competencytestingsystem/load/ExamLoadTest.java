@@ -0,0 +1,169 @@
+package org.legend8883.competencytestingsystem.load;
+
+import tools.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Нагрузочный сценарий: N сотрудников одновременно проходят стартовый тест HR.
+ * Подготовка (регистрация HR и сотрудников, назначение теста) не измеряется.
+ * Измеряется фаза экзамена: вход, старт попытки, загрузка вопросов,
+ * автосохранение ответов пакетами по ANSWERS_PER_SAVE с опросом прогресса после каждого
+ * пакета (как полоса прогресса в клиенте) и завершение.
+ * Каждый сотрудник - отдельный виртуальный поток, все стартуют по общему сигналу.
+ * <p>
+ * Аргументы: baseUrl, число сотрудников (по умолчанию http://localhost:8080 и 2000).
+ */
+public class ExamLoadTest {
+
+    private static final int ANSWERS_PER_SAVE = 10;
+    // Не больше пула соединений по умолчанию: регистрация держит соединение на время BCrypt,
+    // и при большей параллельности подготовка упирается в таймаут пула
+    private static final int SETUP_CONCURRENCY = 20;
+
+    private final String baseUrl;
+    private final int users;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final LatencyStats latencies = new LatencyStats();
+    private final ApiClient api;
+    private final AtomicInteger completedExams = new AtomicInteger();
+
+    public ExamLoadTest(String baseUrl, int users) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.api = new ApiClient(baseUrl, latencies);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        new ExamLoadTest(baseUrl, users).run();
+    }
+
+    public void run() throws Exception {
+        System.out.printf("Load test %s: %d exam takers against %s%n", runId, users, baseUrl);
+
+        // 1. HR и его стартовый тест
+        String hrToken = api.register("/api/auth/register-hr", "load-hr-" + runId + "@example.com")
+                .path("token").asString();
+        JsonNode tests = api.send("setup", "GET", "/api/hr/tests", hrToken, null).path("data");
+        long testId = tests.get(0).path("id").asLong();
+
+        // 2. Сотрудники
+        List<String> emails = new ArrayList<>();
+        ConcurrentHashMap<Integer, Long> idByIndex = new ConcurrentHashMap<>();
+        Semaphore setupLimit = new Semaphore(SETUP_CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                String email = "load-" + runId + "-" + i + "@example.com";
+                emails.add(email);
+                int index = i;
+                executor.submit(() -> {
+                    setupLimit.acquire();
+                    try {
+                        idByIndex.put(index, api.register("/api/auth/register", email).path("userId").asLong());
+                    } finally {
+                        setupLimit.release();
+                    }
+                    return null;
+                });
+            }
+        }
+        if (idByIndex.size() < users) {
+            throw new IllegalStateException("Setup failed: registered " + idByIndex.size() + " of " + users
+                    + " employees, " + api.failedRequests() + " failed requests");
+        }
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            userIds.add(idByIndex.get(i));
+        }
+
+        // 3. Назначение
+        api.assign(hrToken, testId, userIds);
+        latencies.clear("setup");
+
+        // 4. Экзамен
+        CountDownLatch startSignal = new CountDownLatch(1);
+        long started;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String email : emails) {
+                executor.submit(() -> {
+                    startSignal.await();
+                    takeExam(email, testId);
+                    return null;
+                });
+            }
+            started = System.nanoTime();
+            startSignal.countDown();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        report(seconds);
+    }
+
+    private void takeExam(String email, long testId) {
+        try {
+            String token = api.login(email);
+
+            long attemptId = api.send("start", "POST", "/api/employee/tests/start", token,
+                    Map.of("testId", testId)).path("data").path("attemptId").asLong();
+
+            JsonNode questions = api.send("questions", "GET",
+                    "/api/employee/attempts/" + attemptId + "/questions", token, null).path("data");
+
+            List<Map<String, Object>> pending = new ArrayList<>();
+            for (JsonNode question : questions) {
+                pending.add(answerFor(question));
+                if (pending.size() == ANSWERS_PER_SAVE) {
+                    save(token, attemptId, pending);
+                    pending = new ArrayList<>();
+                }
+            }
+            if (!pending.isEmpty()) {
+                save(token, attemptId, pending);
+            }
+
+            api.send("complete", "POST", "/api/employee/attempts/" + attemptId + "/complete", token, null);
+            completedExams.incrementAndGet();
+        } catch (Exception e) {
+            // Запрос уже учтен в failedRequests, сценарий этого сотрудника прерывается
+        }
+    }
+
+    private void save(String token, long attemptId, List<Map<String, Object>> answers) throws Exception {
+        api.send("save", "POST", "/api/employee/attempts/" + attemptId + "/answers/batch", token,
+                Map.of("answers", answers));
+        api.send("progress", "GET", "/api/employee/attempts/" + attemptId + "/progress", token, null);
+    }
+
+    // Первый вариант для CHOICE-вопросов, фиксированный текст для открытых
+    static Map<String, Object> answerFor(JsonNode question) {
+        Map<String, Object> answer = new LinkedHashMap<>();
+        answer.put("questionId", question.path("id").asLong());
+        if ("OPEN_ANSWER".equals(question.path("type").asString())) {
+            answer.put("openAnswerText", "load test answer");
+        } else {
+            answer.put("selectedOptionIds", List.of(question.path("options").get(0).path("id").asLong()));
+        }
+        return answer;
+    }
+
+    private void report(double seconds) {
+        int requests = latencies.count();
+        System.out.printf("%nExam phase: %.1f s, %d/%d exams completed, %d failed requests%n",
+                seconds, completedExams.get(), users, api.failedRequests());
+        System.out.printf("Throughput: %.1f exams/s, %.1f requests/s%n",
+                completedExams.get() / seconds, requests / seconds);
+        System.out.printf("Progress: %.1f requests/s%n", latencies.sorted("progress").length / seconds);
+        latencies.print("Client latency", List.of("login", "start", "questions", "save", "progress", "complete"));
+    }
+}
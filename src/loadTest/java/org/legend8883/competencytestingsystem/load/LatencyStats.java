@@ -0,0 +1,60 @@
+package org.legend8883.competencytestingsystem.load;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Длительности по операциям (мкс) и таблица перцентилей.
+ */
+public class LatencyStats {
+
+    private final Map<String, ConcurrentLinkedQueue<Long>> values = new ConcurrentHashMap<>();
+
+    public void record(String operation, long micros) {
+        values.computeIfAbsent(operation, key -> new ConcurrentLinkedQueue<>()).add(micros);
+    }
+
+    public void clear(String operation) {
+        values.remove(operation);
+    }
+
+    public int count() {
+        return values.values().stream().mapToInt(ConcurrentLinkedQueue::size).sum();
+    }
+
+    public List<String> operations() {
+        return values.keySet().stream().sorted().toList();
+    }
+
+    public void print(String title, List<String> operations) {
+        System.out.printf("%n%s%n%-48s %8s %10s %10s %10s %10s%n",
+                title, "operation", "count", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (String operation : operations) {
+            long[] sorted = sorted(operation);
+            if (sorted.length == 0) {
+                continue;
+            }
+            System.out.printf("%-48s %8d %10.1f %10.1f %10.1f %10.1f%n", operation, sorted.length,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95),
+                    percentile(sorted, 0.99), sorted[sorted.length - 1] / 1000.0);
+        }
+    }
+
+    long[] sorted(String operation) {
+        ConcurrentLinkedQueue<Long> queue = values.get(operation);
+        if (queue == null) {
+            return new long[0];
+        }
+        long[] sorted = queue.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1000.0;
+    }
+}
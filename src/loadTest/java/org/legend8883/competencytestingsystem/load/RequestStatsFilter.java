@@ -0,0 +1,65 @@
+package org.legend8883.competencytestingsystem.load;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.legend8883.competencytestingsystem.monitoring.StatementCountingInspector;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Серверная сторона симуляции: время обработки и число SQL на запрос
+ * по шаблону эндпоинта ("POST /api/employee/attempts/{attemptId}/complete").
+ * Запрос обрабатывается в одном потоке, поэтому прирост StatementCountingInspector
+ * между началом и концом фильтра относится только к нему.
+ */
+public class RequestStatsFilter extends OncePerRequestFilter {
+
+    private record StatementStats(LongAdder total, AtomicInteger max) {
+    }
+
+    private final LatencyStats latencies = new LatencyStats();
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long statementsBefore = StatementCountingInspector.current();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+            int count = (int) (StatementCountingInspector.current() - statementsBefore);
+
+            latencies.record(endpoint, (System.nanoTime() - start) / 1_000);
+            StatementStats stats = statements.computeIfAbsent(endpoint,
+                    key -> new StatementStats(new LongAdder(), new AtomicInteger()));
+            stats.total().add(count);
+            stats.max().accumulateAndGet(count, Math::max);
+        }
+    }
+
+    public void print() {
+        List<String> endpoints = latencies.operations();
+        System.out.printf("%n%s%n%-58s %8s %9s %9s %9s %9s %9s%n", "Server side (per endpoint)",
+                "endpoint", "count", "p50 ms", "p95 ms", "p99 ms", "sql avg", "sql max");
+        for (String endpoint : endpoints) {
+            long[] sorted = latencies.sorted(endpoint);
+            StatementStats stats = statements.get(endpoint);
+            System.out.printf("%-58s %8d %9.1f %9.1f %9.1f %9.1f %9d%n", endpoint, sorted.length,
+                    LatencyStats.percentile(sorted, 0.50), LatencyStats.percentile(sorted, 0.95),
+                    LatencyStats.percentile(sorted, 0.99),
+                    stats.total().doubleValue() / sorted.length, stats.max().get());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.legend8883.competencytestingsystem.load;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Дополнительные бины приложения, запущенного симуляцией
+@Configuration
+public class SimulationConfig {
+
+    @Bean
+    public RequestStatsFilter requestStatsFilter() {
+        return new RequestStatsFilter();
+    }
+
+    // Самым первым фильтром: в замер попадают и фильтры безопасности
+    @Bean
+    public FilterRegistrationBean<RequestStatsFilter> requestStatsFilterRegistration(RequestStatsFilter filter) {
+        FilterRegistrationBean<RequestStatsFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,98 @@
+package org.legend8883.competencytestingsystem.blueprint;
+
+import org.legend8883.competencytestingsystem.entity.QuestionType;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Проверка и подсчет баллов для вопросов с выбором на битовых масках.
+ * Выбор сотрудника переводится в маску по плотным индексам вариантов,
+ * дальше все считается через побитовые операции без обращений к БД.
+ * Для вопросов до 64 вариантов (практически все тесты) не создается ни одного объекта.
+ */
+public final class ChoiceScoringEngine {
+
+    private ChoiceScoringEngine() {
+    }
+
+    /**
+     * Проверяет, что все выбранные варианты принадлежат вопросу, и считает балл.
+     * Одиночный выбор: maxScore, если выбран ровно один вариант и он правильный.
+     * Множественный выбор: (правильные - неправильные) / всего правильных * maxScore,
+     * не меньше нуля, с округлением до целого. Повторно переданный вариант считается один раз
+     * (старый подсчет учитывал повторы и мог дать больше maxScore).
+     *
+     * @throws RuntimeException если среди выбранных есть вариант другого вопроса
+     */
+    public static int score(QuestionBlueprint question, List<Long> selectedOptionIds) {
+        if (question.getOptionCount() <= Long.SIZE) {
+            return scoreSingleWord(question, selectedOptionIds);
+        }
+        return scoreBitSet(question, selectedOptionIds);
+    }
+
+    private static int scoreSingleWord(QuestionBlueprint question, List<Long> selectedOptionIds) {
+        long selected = 0L;
+        for (int i = 0; i < selectedOptionIds.size(); i++) {
+            selected |= 1L << requireIndex(question, selectedOptionIds.get(i));
+        }
+
+        long correctMask = question.getCorrectMask();
+
+        if (question.getType() == QuestionType.SINGLE_CHOICE) {
+            return selectedOptionIds.size() == 1 && (selected & correctMask) != 0
+                    ? question.getMaxScore()
+                    : 0;
+        }
+
+        return partialCredit(
+                Long.bitCount(selected & correctMask),
+                Long.bitCount(selected & ~correctMask),
+                question
+        );
+    }
+
+    private static int scoreBitSet(QuestionBlueprint question, List<Long> selectedOptionIds) {
+        BitSet selected = new BitSet(question.getOptionCount());
+        for (Long optionId : selectedOptionIds) {
+            selected.set(requireIndex(question, optionId));
+        }
+
+        int correctSelected = 0;
+        int incorrectSelected = 0;
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            if (question.isCorrectIndex(i)) {
+                correctSelected++;
+            } else {
+                incorrectSelected++;
+            }
+        }
+
+        if (question.getType() == QuestionType.SINGLE_CHOICE) {
+            return selectedOptionIds.size() == 1 && correctSelected == 1 ? question.getMaxScore() : 0;
+        }
+
+        return partialCredit(correctSelected, incorrectSelected, question);
+    }
+
+    private static int partialCredit(int correctSelected, int incorrectSelected, QuestionBlueprint question) {
+        int totalCorrect = question.getCorrectCount();
+        if (totalCorrect == 0) {
+            return 0;
+        }
+
+        double score = Math.max(0, correctSelected - incorrectSelected)
+                / (double) totalCorrect
+                * question.getMaxScore();
+        return (int) Math.round(score);
+    }
+
+    private static int requireIndex(QuestionBlueprint question, Long optionId) {
+        int index = question.optionIndex(optionId);
+        if (index < 0) {
+            throw new RuntimeException("Option does not belong to this question");
+        }
+        return index;
+    }
+}
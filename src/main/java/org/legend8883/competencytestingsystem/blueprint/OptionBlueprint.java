@@ -0,0 +1,7 @@
+package org.legend8883.competencytestingsystem.blueprint;
+
+/**
+ * Неизменяемый снимок варианта ответа.
+ */
+public record OptionBlueprint(Long id, String text, Integer orderIndex, boolean correct) {
+}
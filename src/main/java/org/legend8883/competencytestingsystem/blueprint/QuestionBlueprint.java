@@ -0,0 +1,120 @@
+package org.legend8883.competencytestingsystem.blueprint;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.legend8883.competencytestingsystem.entity.AnswerOption;
+import org.legend8883.competencytestingsystem.entity.Question;
+import org.legend8883.competencytestingsystem.entity.QuestionType;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Неизменяемый снимок вопроса: варианты в порядке показа,
+ * индекс вариантов по id и множество правильных вариантов.
+ * Каждому варианту присвоен плотный индекс (позиция в списке),
+ * правильные варианты дополнительно хранятся битовой маской для {@link ChoiceScoringEngine}.
+ */
+@Getter
+public final class QuestionBlueprint {
+
+    private final Long id;
+    private final String text;
+    private final QuestionType type;
+    private final Integer maxScore;
+    private final Integer orderIndex;
+    private final List<OptionBlueprint> options;
+    private final Map<Long, OptionBlueprint> optionsById;
+    private final Set<Long> correctOptionIds;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<Long, Integer> optionIndexById;
+    // Маска правильных вариантов, если вариантов не больше 64
+    private final long correctMask;
+    // Та же маска для вопросов с большим числом вариантов
+    @Getter(AccessLevel.NONE)
+    private final BitSet correctBits;
+
+    private QuestionBlueprint(Question question) {
+        this.id = question.getId();
+        this.text = question.getText();
+        this.type = question.getType();
+        this.maxScore = question.getMaxScore();
+        this.orderIndex = question.getOrderIndex();
+
+        List<OptionBlueprint> optionList = new ArrayList<>();
+        Map<Long, OptionBlueprint> byId = new LinkedHashMap<>();
+        Set<Long> correct = new HashSet<>();
+        Map<Long, Integer> indexById = new HashMap<>();
+        BitSet correctBitSet = new BitSet();
+
+        if (question.getOptions() != null) {
+            for (AnswerOption option : question.getOptions()) {
+                OptionBlueprint blueprint = new OptionBlueprint(
+                        option.getId(),
+                        option.getText(),
+                        option.getOrderIndex(),
+                        Boolean.TRUE.equals(option.getIsCorrect())
+                );
+                indexById.put(blueprint.id(), optionList.size());
+                if (blueprint.correct()) {
+                    correct.add(blueprint.id());
+                    correctBitSet.set(optionList.size());
+                }
+                optionList.add(blueprint);
+                byId.put(blueprint.id(), blueprint);
+            }
+        }
+
+        this.options = Collections.unmodifiableList(optionList);
+        this.optionsById = Collections.unmodifiableMap(byId);
+        this.correctOptionIds = Collections.unmodifiableSet(correct);
+        this.optionIndexById = Collections.unmodifiableMap(indexById);
+        this.correctBits = correctBitSet;
+        this.correctMask = optionList.size() <= Long.SIZE && !correctBitSet.isEmpty()
+                ? correctBitSet.toLongArray()[0]
+                : 0L;
+    }
+
+    public static QuestionBlueprint from(Question question) {
+        return new QuestionBlueprint(question);
+    }
+
+    public boolean isChoiceQuestion() {
+        return type == QuestionType.SINGLE_CHOICE || type == QuestionType.MULTIPLE_CHOICE;
+    }
+
+    public boolean hasOption(Long optionId) {
+        return optionsById.containsKey(optionId);
+    }
+
+    public boolean isCorrectOption(Long optionId) {
+        return correctOptionIds.contains(optionId);
+    }
+
+    public int getOptionCount() {
+        return options.size();
+    }
+
+    public int getCorrectCount() {
+        return correctOptionIds.size();
+    }
+
+    // Плотный индекс варианта или -1, если вариант не из этого вопроса
+    public int optionIndex(Long optionId) {
+        Integer index = optionId != null ? optionIndexById.get(optionId) : null;
+        return index != null ? index : -1;
+    }
+
+    // Правильный ли вариант с данным плотным индексом
+    public boolean isCorrectIndex(int index) {
+        return correctBits.get(index);
+    }
+}
@@ -0,0 +1,92 @@
+package org.legend8883.competencytestingsystem.blueprint;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.legend8883.competencytestingsystem.entity.Question;
+import org.legend8883.competencytestingsystem.entity.QuestionType;
+import org.legend8883.competencytestingsystem.entity.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Неизменяемый, заранее проиндексированный снимок теста для горячего пути прохождения.
+ * Во время экзамена вопросы и варианты не меняются, поэтому снимок можно
+ * держать в памяти и не обращаться к Hibernate-сущностям на каждый запрос.
+ */
+@Getter
+public final class TestBlueprint {
+
+    private final Long testId;
+    private final String title;
+    private final Integer timeLimitMinutes;
+    private final Integer passingScore;
+    private final List<QuestionBlueprint> questions;
+    private final int maxScore;
+
+    @Getter(AccessLevel.NONE)
+    private final boolean hasOpenQuestions;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<Long, Integer> indexByQuestionId;
+
+    private TestBlueprint(Test test, List<Question> orderedQuestions) {
+        this.testId = test.getId();
+        this.title = test.getTitle();
+        this.timeLimitMinutes = test.getTimeLimitMinutes();
+        this.passingScore = test.getPassingScore();
+
+        List<QuestionBlueprint> questionList = new ArrayList<>(orderedQuestions.size());
+        Map<Long, Integer> index = new HashMap<>();
+        int totalScore = 0;
+        boolean open = false;
+
+        for (Question question : orderedQuestions) {
+            QuestionBlueprint blueprint = QuestionBlueprint.from(question);
+            index.put(blueprint.getId(), questionList.size());
+            questionList.add(blueprint);
+
+            totalScore += blueprint.getMaxScore() != null ? blueprint.getMaxScore() : 0;
+            open |= blueprint.getType() == QuestionType.OPEN_ANSWER;
+        }
+
+        this.questions = Collections.unmodifiableList(questionList);
+        this.indexByQuestionId = Collections.unmodifiableMap(index);
+        this.maxScore = totalScore;
+        this.hasOpenQuestions = open;
+    }
+
+    /**
+     * @param orderedQuestions вопросы теста с загруженными вариантами, в порядке orderIndex
+     */
+    public static TestBlueprint from(Test test, List<Question> orderedQuestions) {
+        return new TestBlueprint(test, orderedQuestions);
+    }
+
+    public boolean hasOpenQuestions() {
+        return hasOpenQuestions;
+    }
+
+    public int size() {
+        return questions.size();
+    }
+
+    public boolean isEmpty() {
+        return questions.isEmpty();
+    }
+
+    // Индекс вопроса в тесте или -1, если вопрос не из этого теста
+    public int indexOf(Long questionId) {
+        Integer index = questionId != null ? indexByQuestionId.get(questionId) : null;
+        return index != null ? index : -1;
+    }
+
+    public Optional<QuestionBlueprint> findQuestion(Long questionId) {
+        int index = indexOf(questionId);
+        return index >= 0 ? Optional.of(questions.get(index)) : Optional.empty();
+    }
+}
@@ -0,0 +1,100 @@
+package org.legend8883.competencytestingsystem.blueprint;
+
+import org.legend8883.competencytestingsystem.entity.Question;
+import org.legend8883.competencytestingsystem.entity.Test;
+import org.legend8883.competencytestingsystem.repository.QuestionRepository;
+import org.legend8883.competencytestingsystem.repository.TestRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш снимков тестов по id с LRU-вытеснением.
+ * Снимок строится одним запросом вопросов с вариантами и сбрасывается
+ * при любом изменении теста (см. {@link #invalidate(Long)}).
+ */
+@Component
+public class TestBlueprintCache {
+
+    private final TestRepository testRepository;
+    private final QuestionRepository questionRepository;
+    private final Map<Long, TestBlueprint> blueprints;
+
+    // Защита от гонки: снимок, загруженный до сброса, не должен попасть в кэш после него
+    private final AtomicLong generation = new AtomicLong();
+
+    public TestBlueprintCache(TestRepository testRepository,
+                              QuestionRepository questionRepository,
+                              @Value("${app.blueprint.cache-size:256}") int maxSize) {
+        this.testRepository = testRepository;
+        this.questionRepository = questionRepository;
+        this.blueprints = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, TestBlueprint> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    public TestBlueprint get(Long testId) {
+        TestBlueprint cached = blueprints.get(testId);
+        if (cached != null) {
+            return cached;
+        }
+
+        Test test = testRepository.findById(testId)
+                .orElseThrow(() -> new RuntimeException("Test not found"));
+        return load(test);
+    }
+
+    public TestBlueprint get(Test test) {
+        TestBlueprint cached = blueprints.get(test.getId());
+        if (cached != null) {
+            return cached;
+        }
+        return load(test);
+    }
+
+    /**
+     * Сбрасывает снимок теста. Внутри транзакции сброс повторяется после коммита,
+     * чтобы параллельный запрос не закэшировал данные, прочитанные до коммита.
+     */
+    public void invalidate(Long testId) {
+        evict(testId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(testId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long testId) {
+        generation.incrementAndGet();
+        blueprints.remove(testId);
+    }
+
+    private TestBlueprint load(Test test) {
+        long loadGeneration = generation.get();
+
+        List<Question> questions = questionRepository.findByTestWithOptions(test);
+        TestBlueprint blueprint = TestBlueprint.from(test, questions);
+
+        synchronized (blueprints) {
+            if (generation.get() == loadGeneration) {
+                blueprints.put(test.getId(), blueprint);
+            }
+        }
+        return blueprint;
+    }
+}
@@ -0,0 +1,28 @@
+package org.legend8883.competencytestingsystem.cache;
+
+import java.util.List;
+
+/**
+ * Регионы второго уровня кэша Hibernate. Все регионы создаются заранее
+ * (hibernate.javax.cache.missing_cache_strategy=fail), поэтому каждый новый
+ * регион нужно добавить в {@link #ALL}.
+ */
+public final class CacheRegions {
+
+    public static final String TESTS = "tests";
+    public static final String QUESTIONS = "questions";
+    public static final String ANSWER_OPTIONS = "answer-options";
+    public static final String TEST_QUESTIONS = "test-questions";
+    public static final String QUESTION_OPTIONS = "question-options";
+
+    // Стандартные регионы кэша запросов Hibernate
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    public static final List<String> ALL = List.of(
+            TESTS, QUESTIONS, ANSWER_OPTIONS, TEST_QUESTIONS, QUESTION_OPTIONS,
+            QUERY_RESULTS, UPDATE_TIMESTAMPS);
+
+    private CacheRegions() {
+    }
+}
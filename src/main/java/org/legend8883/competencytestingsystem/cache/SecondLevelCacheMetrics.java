@@ -0,0 +1,60 @@
+package org.legend8883.competencytestingsystem.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Попадания, промахи, записи и размер по каждому региону второго уровня кэша
+ * (/actuator/metrics/l2cache.requests?tag=region:tests&tag=result:miss).
+ * Требует hibernate.generate_statistics=true.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : CacheRegions.ALL) {
+            FunctionCounter.builder("l2cache.requests", statistics,
+                            stats -> regionValue(stats, region, CacheRegionStatistics::getHitCount))
+                    .tags("region", region, "result", "hit")
+                    .description("Попадания во второй уровень кэша Hibernate")
+                    .register(registry);
+            FunctionCounter.builder("l2cache.requests", statistics,
+                            stats -> regionValue(stats, region, CacheRegionStatistics::getMissCount))
+                    .tags("region", region, "result", "miss")
+                    .description("Промахи второго уровня кэша Hibernate")
+                    .register(registry);
+            FunctionCounter.builder("l2cache.puts", statistics,
+                            stats -> regionValue(stats, region, CacheRegionStatistics::getPutCount))
+                    .tags("region", region)
+                    .description("Записи во второй уровень кэша Hibernate")
+                    .register(registry);
+            Gauge.builder("l2cache.size", statistics,
+                            stats -> regionValue(stats, region, CacheRegionStatistics::getElementCountInMemory))
+                    .tags("region", region)
+                    .description("Элементов в регионе (-1, если провайдер не сообщает)")
+                    .register(registry);
+        }
+    }
+
+    private static double regionValue(Statistics statistics, String region,
+                                      ToLongFunction<CacheRegionStatistics> value) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics != null ? value.applyAsLong(regionStatistics) : 0;
+    }
+}
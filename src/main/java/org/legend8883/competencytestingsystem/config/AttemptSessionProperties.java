@@ -0,0 +1,36 @@
+package org.legend8883.competencytestingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.session")
+public class AttemptSessionProperties {
+
+    // Режим сессии: ответы копятся в памяти узла и пишутся в БД пакетами.
+    // При нескольких узлах требует привязки сотрудника к узлу (sticky sessions)
+    private boolean enabled = false;
+
+    private long flushIntervalMs = 5_000;
+
+    // Сколько попыток может держать узел; остальные пишутся в БД сразу
+    private int maxAttempts = 5_000;
+
+    // Журнал на диске закрывает окно между сбросами
+    private boolean journalEnabled = true;
+    private String journalDir = "data/session-journal";
+
+    // fsync после каждой записи: переживает падение машины, а не только процесса
+    private boolean journalFsync = false;
+
+    /**
+     * Задержка автоотправки после дедлайна. Попытку завершает узел с арендой, а черновики
+     * могут лежать в памяти другого узла: за два интервала сброса каждый узел успевает
+     * записать их в БД сам.
+     */
+    public long autoSubmitGraceMs() {
+        return enabled ? 2 * flushIntervalMs : 0;
+    }
+}
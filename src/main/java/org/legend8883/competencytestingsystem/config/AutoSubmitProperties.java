@@ -0,0 +1,26 @@
+package org.legend8883.competencytestingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.auto-submit")
+public class AutoSubmitProperties {
+    private boolean enabled = true;
+
+    // Колесо таймеров: шаг, число ячеек на уровень и число уровней
+    private long tickMs = 1_000;
+    private int wheelSize = 64;
+    private int wheelLevels = 4;
+
+    // Сколько попыток завершается в одной транзакции
+    private int batchSize = 200;
+
+    // Страховочная проверка по БД: попытки других узлов и пропущенные таймеры
+    private long sweepIntervalMs = 60_000;
+
+    // Аренда в БД: только один узел обрабатывает пакет
+    private long leaseTtlMs = 30_000;
+}
@@ -15,6 +15,10 @@ public class JwtProperties {
     private String secret;
     private long expirationMs;
 
+    // Кэш проверенных токенов (0 - отключить)
+    private int verificationCacheSize = 10_000;
+    private long verificationCacheTtlMs = 60_000;
+
     public SecretKey getSecretKey() {
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
 
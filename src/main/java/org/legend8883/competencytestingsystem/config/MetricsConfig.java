@@ -0,0 +1,21 @@
+package org.legend8883.competencytestingsystem.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.legend8883.competencytestingsystem.monitoring.StatementCountingInspector;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Подключение счетчика SQL-запросов к Hibernate.
+ * Таймеры сервисов (@Timed) включаются через management.observations.annotations.enabled.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(
+                AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
+}
@@ -0,0 +1,51 @@
+package org.legend8883.competencytestingsystem.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.legend8883.competencytestingsystem.cache.CacheRegions;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+
+/**
+ * Второй уровень кэша Hibernate на Caffeine (JCache).
+ * Регионы создаются здесь с размером и TTL из app.l2-cache.regions,
+ * менеджер передается Hibernate через hibernate.javax.cache.cache_manager.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        for (String region : CacheRegions.ALL) {
+            SecondLevelCacheProperties.Region policy = properties.getRegions()
+                    .getOrDefault(region, new SecondLevelCacheProperties.Region());
+
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(policy.getMaxSize()));
+            // Метки обновления таблиц не должны истекать: без метки результат запроса считался бы свежим
+            if (policy.getTtl() != null && !CacheRegions.UPDATE_TIMESTAMPS.equals(region)) {
+                configuration.setExpireAfterWrite(OptionalLong.of(policy.getTtl().toNanos()));
+            }
+            configuration.setStatisticsEnabled(true);
+
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, configuration);
+            }
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put("hibernate.javax.cache.cache_manager", secondLevelCacheManager);
+    }
+}
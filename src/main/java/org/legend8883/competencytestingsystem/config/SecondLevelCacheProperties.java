@@ -0,0 +1,26 @@
+package org.legend8883.competencytestingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.l2-cache")
+public class SecondLevelCacheProperties {
+
+    // Политика по регионам (имена - CacheRegions); регион без настройки получает значения по умолчанию
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        private long maxSize = 1_000;
+
+        // null - без истечения по времени
+        private Duration ttl = Duration.ofMinutes(30);
+    }
+}
@@ -4,19 +4,25 @@ package org.legend8883.competencytestingsystem.config;
 import lombok.RequiredArgsConstructor;
 import org.legend8883.competencytestingsystem.security.JwtAuthenticationFilter;
 import org.legend8883.competencytestingsystem.security.SecurityExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -33,6 +39,42 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final SecurityExceptionHandler securityExceptionHandler;
 
+    /**
+     * /actuator/prometheus - только для сборщика метрик по HTTP Basic
+     * (app.metrics.scraper.*). Без пароля эндпоинт закрыт для всех.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(
+            HttpSecurity http,
+            @Value("${app.metrics.scraper.username:prometheus}") String username,
+            @Value("${app.metrics.scraper.password:}") String password) throws Exception {
+        http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                );
+
+        if (password.isBlank()) {
+            http.authorizeHttpRequests(auth -> auth.anyRequest().denyAll());
+            return http.build();
+        }
+
+        InMemoryUserDetailsManager scrapers = new InMemoryUserDetailsManager(User.withUsername(username)
+                .password(passwordEncoder().encode(password))
+                .roles("METRICS")
+                .build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(scrapers);
+        provider.setPasswordEncoder(passwordEncoder());
+
+        http
+                .authenticationManager(new ProviderManager(provider))
+                .httpBasic(basic -> { })
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"));
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -60,6 +102,10 @@ public class SecurityConfig {
                         // Employee endpoints
                         .requestMatchers("/api/employee/**").hasRole("EMPLOYEE")
 
+                        // Actuator: health открыт, метрики только для HR (prometheus - отдельная цепочка выше)
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("HR")
+
 
                         // Все остальные требуют аутентификации
                         .anyRequest().permitAll()
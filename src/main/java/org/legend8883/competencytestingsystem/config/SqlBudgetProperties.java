@@ -0,0 +1,28 @@
+package org.legend8883.competencytestingsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-budget")
+public class SqlBudgetProperties {
+    private boolean enabled = true;
+
+    // Бюджет для эндпоинтов без собственной настройки
+    private int defaultLimit = 50;
+
+    // Шаблон эндпоинта -> бюджет: app.sql-budget.endpoints[/api/hr/tests/{testId}]=10
+    private Map<String, Integer> endpoints = new LinkedHashMap<>();
+
+    // Сколько самых частых отпечатков попадает в предупреждение
+    private int logFingerprints = 5;
+
+    public int limitFor(String uri) {
+        return endpoints.getOrDefault(uri, defaultLimit);
+    }
+}
@@ -1,8 +1,10 @@
 package org.legend8883.competencytestingsystem.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.legend8883.competencytestingsystem.dto.request.StartTestRequest;
 import org.legend8883.competencytestingsystem.dto.request.SubmitAnswerRequest;
+import org.legend8883.competencytestingsystem.dto.request.SubmitAnswersBatchRequest;
 import org.legend8883.competencytestingsystem.dto.response.*;
 import org.legend8883.competencytestingsystem.entity.*;
 import org.legend8883.competencytestingsystem.mapper.AttemptMapper;
@@ -46,8 +48,9 @@ public class EmployeeController {
     public ResponseEntity<ApiResponse<List<TestResponse>>> getAvailableTests(
             @AuthenticationPrincipal User employee) {
         var tests = testAssignmentService.getAvailableTestsForEmployee(employee.getId());
+        // Списку нужны только колонки-сводки теста, вопросы и варианты не загружаются
         List<TestResponse> testResponses = tests.stream()
-                .map(testMapper::toDto)
+                .map(testMapper::toSummaryDto)
                 .toList();
 
         return ResponseEntity.ok(ApiResponse.success("Доступные тесты", testResponses));
@@ -80,6 +83,35 @@ public class EmployeeController {
         return ResponseEntity.ok(ApiResponse.success("Ответ сохранен", response));
     }
 
+    // Сохранить ответ и получить только дельту прогресса
+    @PostMapping("/attempts/{attemptId}/answers/delta")
+    public ResponseEntity<ApiResponse<AnswerDeltaResponse>> submitAnswerDelta(
+            @PathVariable Long attemptId,
+            @RequestBody SubmitAnswerRequest request,
+            @AuthenticationPrincipal User employee) {
+        AnswerDeltaResponse response = attemptService.submitAnswerDelta(attemptId, request, employee.getId());
+        return ResponseEntity.ok(ApiResponse.success("Ответ сохранен", response));
+    }
+
+    // Полная карта прогресса по запросу
+    @GetMapping("/attempts/{attemptId}/progress-map")
+    public ResponseEntity<ApiResponse<ProgressMapResponse>> getProgressMap(
+            @PathVariable Long attemptId,
+            @AuthenticationPrincipal User employee) {
+        ProgressMapResponse response = attemptService.getProgressMap(attemptId, employee.getId());
+        return ResponseEntity.ok(ApiResponse.success("Карта прогресса", response));
+    }
+
+    // Пакетное сохранение ответов (автосохранение клиента)
+    @PostMapping("/attempts/{attemptId}/answers/batch")
+    public ResponseEntity<ApiResponse<ProgressSummaryResponse>> submitAnswers(
+            @PathVariable Long attemptId,
+            @Valid @RequestBody SubmitAnswersBatchRequest request,
+            @AuthenticationPrincipal User employee) {
+        ProgressSummaryResponse response = attemptService.submitAnswers(attemptId, request, employee.getId());
+        return ResponseEntity.ok(ApiResponse.success("Ответы сохранены", response));
+    }
+
     @PostMapping("/attempts/{attemptId}/complete")
     public ResponseEntity<ApiResponse<TestProgressResponse>> completeTest(
             @PathVariable Long attemptId,
@@ -91,47 +123,15 @@ public class EmployeeController {
     // РЕЗУЛЬТАТЫ
 
     @GetMapping("/attempts")
-    public ResponseEntity<ApiResponse<List<AttemptResponse>>> getMyAttempts(
+    public ResponseEntity<ApiResponse<List<AttemptResponseWithDetails>>> getMyAttempts(
             @AuthenticationPrincipal User employee) {
 
-        List<Attempt> attempts = attemptRepository.findByUser(employee);
-
-        // Создаем DTO с информацией об открытых вопросах
-        List<AttemptResponse> response = attempts.stream()
-                .map(this::createAttemptResponseWithDetails)
-                .collect(java.util.stream.Collectors.toList());
+        // Одна проекция: попытка + название, макс. балл и наличие открытых вопросов теста
+        List<AttemptResponseWithDetails> response = attemptRepository.findEmployeeAttempts(employee.getId());
 
         return ResponseEntity.ok(ApiResponse.success("Мои попытки", response));
     }
 
-    // Метод для проверки наличия открытых вопросов в тесте
-    private boolean hasTestOpenQuestions(Test test) {
-        if (test == null || test.getQuestions() == null) {
-            return false;
-        }
-
-        return test.getQuestions().stream()
-                .anyMatch(q -> q.getType() == QuestionType.OPEN_ANSWER);
-    }
-
-    // Метод для создания полного DTO попытки с информацией об открытых вопросах
-    private AttemptResponse createAttemptResponseWithDetails(Attempt attempt) {
-        AttemptResponse dto = attemptMapper.toAttemptResponse(attempt);
-
-        // Используем рефлексию для установки поля, или создадим новый DTO
-        try {
-            // Попробуем установить поле через рефлексию
-            java.lang.reflect.Field field = dto.getClass().getDeclaredField("hasOpenQuestions");
-            field.setAccessible(true);
-            field.set(dto, hasTestOpenQuestions(attempt.getTest()));
-        } catch (Exception e) {
-            // Если поля нет, создадим обертку
-            System.out.println("Field hasOpenQuestions not found in AttemptResponse");
-        }
-
-        return dto;
-    }
-
     // Метод для создания результатов теста (добавить в EmployeeController)
     private TestResultResponse createTestResultResponse(Attempt attempt) {
         TestResultResponse response = new TestResultResponse();
@@ -163,7 +163,7 @@ public class EmployeeController {
                 .count();
 
         response.setCorrectAnswersCount((int) correctAnswersCount);
-        response.setTotalQuestions(attempt.getTest().getQuestions().size());
+        response.setTotalQuestions(attempt.getTest().getQuestionCount());
 
         // Создаем детали ответов
         List<AnswerResultResponse> answerResponses = answers.stream()
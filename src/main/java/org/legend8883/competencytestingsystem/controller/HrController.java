@@ -3,6 +3,7 @@ package org.legend8883.competencytestingsystem.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.legend8883.competencytestingsystem.dto.request.AssignTestRequest;
+import org.legend8883.competencytestingsystem.dto.request.AttemptSearchRequest;
 import org.legend8883.competencytestingsystem.dto.request.CreateTestRequest;
 import org.legend8883.competencytestingsystem.dto.request.EvaluateAnswerRequest;
 import org.legend8883.competencytestingsystem.dto.response.*;
@@ -12,15 +13,23 @@ import org.legend8883.competencytestingsystem.mapper.AttemptMapper;
 import org.legend8883.competencytestingsystem.mapper.UserMapper;
 import org.legend8883.competencytestingsystem.repository.AnswerRepository;
 import org.legend8883.competencytestingsystem.repository.AttemptRepository;
+import org.legend8883.competencytestingsystem.service.AssignmentJobService;
+import org.legend8883.competencytestingsystem.service.AttemptService;
+import org.legend8883.competencytestingsystem.service.DefaultTestService;
 import org.legend8883.competencytestingsystem.service.EvaluationService;
 import org.legend8883.competencytestingsystem.service.TestAssignmentService;
+import org.legend8883.competencytestingsystem.service.TestImportService;
 import org.legend8883.competencytestingsystem.service.TestService;
 import org.legend8883.competencytestingsystem.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,9 +40,13 @@ import java.util.Map;
 public class HrController {
 
     private final TestService testService;
+    private final TestImportService testImportService;
+    private final DefaultTestService defaultTestService;
     private final UserService userService;
     private final TestAssignmentService testAssignmentService;
+    private final AssignmentJobService assignmentJobService;
     private final EvaluationService evaluationService;
+    private final AttemptService attemptService;
     private final AnswerMapper answerMapper;
     private final AttemptMapper attemptMapper;
     private final UserMapper userMapper;
@@ -51,9 +64,21 @@ public class HrController {
         return ResponseEntity.ok(ApiResponse.success("Тест создан", response));
     }
 
+    // Импорт: JSON-массив тестов или по тесту на строку (application/x-ndjson)
+    @PostMapping(value = "/tests/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<TestImportResponse>> importTests(
+            InputStream body,
+            @AuthenticationPrincipal User hr) {
+        TestImportResponse response = testImportService.importTests(body, hr.getId());
+        return ResponseEntity.ok(ApiResponse.success("Импорт завершен", response));
+    }
+
     @GetMapping("/tests")
     public ResponseEntity<ApiResponse<List<TestResponse>>> getMyTests(
             @AuthenticationPrincipal User hr) {
+        // Стартовый тест, если его не создали сразу после регистрации
+        defaultTestService.provisionIfPending(hr.getId());
         List<TestResponse> tests = testService.getTestsByHr(hr.getId());
         return ResponseEntity.ok(ApiResponse.success("Тесты получены", tests));
     }
@@ -99,13 +124,27 @@ public class HrController {
 
     // ========== НАЗНАЧЕНИЕ ТЕСТОВ ==========
 
+    // Большие группы назначаются в фоне: 202 и id задачи для опроса статуса
     @PostMapping("/tests/{testId}/assign")
-    public ResponseEntity<ApiResponse<Void>> assignTest(
+    public ResponseEntity<ApiResponse<AssignmentJobResponse>> assignTest(
             @PathVariable Long testId,
             @Valid @RequestBody AssignTestRequest request,
             @AuthenticationPrincipal User hr) {
+        if (assignmentJobService.shouldRunAsync(request)) {
+            AssignmentJobResponse job = assignmentJobService.start(testId, request, hr.getId());
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Назначение запущено в фоне", job));
+        }
         testAssignmentService.assignTestToUsers(testId, request, hr.getId());
-        return ResponseEntity.ok(ApiResponse.success("Тест назначен сотрудникам"));
+        return ResponseEntity.ok(ApiResponse.success("Тест назначен сотрудникам", null));
+    }
+
+    @GetMapping("/assignment-jobs/{jobId}")
+    public ResponseEntity<ApiResponse<AssignmentJobResponse>> getAssignmentJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal User hr) {
+        AssignmentJobResponse job = assignmentJobService.getJob(jobId, hr.getId());
+        return ResponseEntity.ok(ApiResponse.success("Статус назначения", job));
     }
 
     @GetMapping("/tests/{testId}/assignments")
@@ -159,20 +198,12 @@ public class HrController {
     }
 
     @GetMapping("/completed-attempts")
-    public ResponseEntity<ApiResponse<List<AttemptResponse>>> getCompletedAttempts(
+    public ResponseEntity<ApiResponse<CursorPageResponse<AttemptResponse>>> getCompletedAttempts(
+            @Valid AttemptSearchRequest request,
             @AuthenticationPrincipal User hr) {
-        List<Attempt> allAttempts = attemptRepository.findAll();
-
-        // Фильтруем завершенные попытки (COMPLETED или EVALUATED)
-        List<Attempt> completedAttempts = allAttempts.stream()
-                .filter(a -> a.getStatus() == AttemptStatus.COMPLETED ||
-                        a.getStatus() == AttemptStatus.EVALUATED)
-                .toList();
-
-        List<AttemptResponse> response = completedAttempts.stream()
-                .map(attemptMapper::toAttemptResponse)
-                .toList();
-
+        // Завершенные попытки (COMPLETED, EVALUATED или AUTO_SUBMITTED) по тестам этого HR
+        CursorPageResponse<AttemptResponse> response = attemptService.searchHrAttempts(hr.getId(), request,
+                EnumSet.of(AttemptStatus.COMPLETED, AttemptStatus.EVALUATED, AttemptStatus.AUTO_SUBMITTED));
         return ResponseEntity.ok(ApiResponse.success("Завершенные попытки", response));
     }
 
@@ -184,30 +215,24 @@ public class HrController {
         return ResponseEntity.ok(ApiResponse.success("Детали попытки", null));
     }
 
-    // Эндпоинт для получения всех попыток
+    // Эндпоинт для получения всех попыток (страницами, с фильтрами)
     @GetMapping("/attempts/all")
-    public ResponseEntity<ApiResponse<List<AttemptResponse>>> getAllAttempts(
+    public ResponseEntity<ApiResponse<CursorPageResponse<AttemptResponse>>> getAllAttempts(
+            @Valid AttemptSearchRequest request,
             @AuthenticationPrincipal User hr) {
-
-        // Получаем все попытки
-        List<Attempt> allAttempts = attemptRepository.findAll();
-
-        // Фильтруем попытки, связанные с тестами этого HR
-        List<Attempt> hrAttempts = allAttempts.stream()
-                .filter(attempt ->
-                        attempt.getTest() != null &&
-                                attempt.getTest().getCreatedBy() != null &&
-                                attempt.getTest().getCreatedBy().getId().equals(hr.getId())
-                )
-                .toList();
-
-        List<AttemptResponse> response = hrAttempts.stream()
-                .map(attemptMapper::toAttemptResponse)
-                .toList();
-
+        CursorPageResponse<AttemptResponse> response = attemptService.searchHrAttempts(hr.getId(), request,
+                EnumSet.allOf(AttemptStatus.class));
         return ResponseEntity.ok(ApiResponse.success("Все попытки", response));
     }
 
+    // Количество попыток по статусам (бейджи вкладок)
+    @GetMapping("/attempts/status-counts")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> getAttemptStatusCounts(
+            @AuthenticationPrincipal User hr) {
+        return ResponseEntity.ok(ApiResponse.success("Количество попыток",
+                attemptService.countHrAttemptsByStatus(hr.getId())));
+    }
+
     // Эндпоинт для получения деталей попытки
     @GetMapping("/attempts/{attemptId}/full")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getAttemptFullDetails(
@@ -244,15 +269,15 @@ public class HrController {
 
         // Подсчитываем правильные ответы
         long correctAnswersCount = answers.stream()
-                .filter(this::isAnswerCorrect)
+                .filter(HrController::isAnswerCorrect)
                 .count();
 
         response.put("correctAnswersCount", (int) correctAnswersCount);
-        response.put("totalQuestions", attempt.getTest().getQuestions().size());
+        response.put("totalQuestions", attempt.getTest().getQuestionCount());
 
         // Маппим ответы
         List<Map<String, Object>> answerResponses = answers.stream()
-                .map(this::mapAnswerToFullMap)
+                .map(HrController::mapAnswerToFullMap)
                 .toList();
 
         response.put("answers", answerResponses);
@@ -260,8 +285,8 @@ public class HrController {
         return ResponseEntity.ok(ApiResponse.success("Детали попытки", response));
     }
 
-    // Вспомогательный метод для маппинга ответа
-    private Map<String, Object> mapAnswerToFullMap(Answer answer) {
+    // Вспомогательный метод для маппинга ответа (static и package-private - вызывается из бенчмарков src/jmh)
+    static Map<String, Object> mapAnswerToFullMap(Answer answer) {
         Map<String, Object> map = new HashMap<>();
 
         map.put("answerId", answer.getId());
@@ -304,7 +329,7 @@ public class HrController {
     }
 
     // Вспомогательный метод для проверки правильности ответа
-    private boolean isAnswerCorrect(Answer answer) {
+    static boolean isAnswerCorrect(Answer answer) {
         if (answer.getQuestion().getType() == QuestionType.OPEN_ANSWER) {
             // Для открытых вопросов правильность определяется HR
             return answer.getAssignedScore() != null &&
@@ -0,0 +1,33 @@
+package org.legend8883.competencytestingsystem.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.legend8883.competencytestingsystem.entity.AttemptStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// Фильтры списка попыток для HR (query-параметры)
+@Data
+public class AttemptSearchRequest {
+
+    // id последней попытки предыдущей страницы
+    private Long cursor;
+
+    @Min(value = 1, message = "Размер страницы - от 1")
+    @Max(value = 100, message = "Размер страницы - не больше 100")
+    private Integer size = 20;
+
+    private Set<AttemptStatus> statuses;
+
+    private Long testId;
+
+    // Период по дате начала попытки: [from, to)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+}
@@ -0,0 +1,16 @@
+package org.legend8883.competencytestingsystem.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class SubmitAnswersBatchRequest {
+
+    @NotEmpty(message = "Список ответов не может быть пустым")
+    @Size(max = 500, message = "Не более 500 ответов за один запрос")
+    private List<SubmitAnswerRequest> answers = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package org.legend8883.competencytestingsystem.dto.response;
+
+import lombok.Data;
+
+// Дельта после сохранения одного ответа: только то, что изменилось
+@Data
+public class AnswerDeltaResponse {
+    private Long attemptId;
+    private Long questionId;
+    private Boolean answered;
+    private Integer answeredCount;
+    private Integer totalQuestions;
+    private Integer timeLeftMinutes;
+}
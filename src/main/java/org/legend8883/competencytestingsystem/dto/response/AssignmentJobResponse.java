@@ -0,0 +1,22 @@
+package org.legend8883.competencytestingsystem.dto.response;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Состояние фонового назначения теста: опрашивается до статуса COMPLETED или FAILED
+@Data
+public class AssignmentJobResponse {
+    private String jobId;
+    private Long testId;
+    private String status;
+    private int totalUsers;
+    private int processedUsers;
+    private int assignedUsers;
+    // userId -> причина, по которой назначение пропущено
+    private Map<Long, String> failures;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
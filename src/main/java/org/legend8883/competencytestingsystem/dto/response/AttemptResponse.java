@@ -1,10 +1,14 @@
 package org.legend8883.competencytestingsystem.dto.response;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.legend8883.competencytestingsystem.entity.AttemptStatus;
+import org.legend8883.competencytestingsystem.entity.Role;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class AttemptResponse {
     private Long id;
     private Long testId;
@@ -15,4 +19,25 @@ public class AttemptResponse {
     private Integer score;
     private String status;
     private Boolean passed;
+
+    // Для JPQL-проекций (SELECT new ...): строка списка без загрузки сущностей
+    public AttemptResponse(Long id, Long testId, String testTitle,
+                           Long userId, String email, String firstName, String lastName, Role role,
+                           LocalDateTime startedAt, LocalDateTime completedAt, Integer score,
+                           AttemptStatus status, Integer passingScore) {
+        this.id = id;
+        this.testId = testId;
+        this.testTitle = testTitle;
+        this.user = new UserSimpleResponse();
+        this.user.setId(userId);
+        this.user.setEmail(email);
+        this.user.setFirstName(firstName);
+        this.user.setLastName(lastName);
+        this.user.setRole(role != null ? role.name() : null);
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+        this.score = score;
+        this.status = status != null ? status.name() : null;
+        this.passed = score != null && passingScore != null && score >= passingScore;
+    }
 }
@@ -2,11 +2,31 @@ package org.legend8883.competencytestingsystem.dto.response;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.legend8883.competencytestingsystem.entity.AttemptStatus;
+import org.legend8883.competencytestingsystem.entity.Role;
+
+import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 public class AttemptResponseWithDetails extends AttemptResponse {
     private Boolean hasOpenQuestions;
     private Integer totalQuestions;
     private Integer answeredQuestions;
+    private Integer maxPossibleScore;
+
+    // Для JPQL-проекций: данные теста берутся из его колонок-агрегатов
+    public AttemptResponseWithDetails(Long id, Long testId, String testTitle,
+                                      Long userId, String email, String firstName, String lastName, Role role,
+                                      LocalDateTime startedAt, LocalDateTime completedAt, Integer score,
+                                      AttemptStatus status, Integer passingScore,
+                                      Integer maxPossibleScore, Integer totalQuestions, Boolean hasOpenQuestions) {
+        super(id, testId, testTitle, userId, email, firstName, lastName, role,
+                startedAt, completedAt, score, status, passingScore);
+        this.maxPossibleScore = maxPossibleScore;
+        this.totalQuestions = totalQuestions;
+        this.hasOpenQuestions = hasOpenQuestions;
+    }
 }
@@ -0,0 +1,17 @@
+package org.legend8883.competencytestingsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Страница keyset-пагинации: nextCursor передается в следующий запрос как cursor
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private Long nextCursor;
+    private boolean hasMore;
+}
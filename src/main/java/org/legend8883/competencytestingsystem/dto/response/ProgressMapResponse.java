@@ -0,0 +1,15 @@
+package org.legend8883.competencytestingsystem.dto.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Карта прогресса по всем вопросам без текущего вопроса и вариантов
+@Data
+public class ProgressMapResponse {
+    private Long attemptId;
+    private Integer totalQuestions;
+    private Integer answeredCount;
+    private Integer timeLeftMinutes;
+    private List<QuestionProgressResponse> questionProgress;
+}
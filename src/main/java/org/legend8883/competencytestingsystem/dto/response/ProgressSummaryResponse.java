@@ -0,0 +1,13 @@
+package org.legend8883.competencytestingsystem.dto.response;
+
+import lombok.Data;
+
+// Компактный прогресс после пакетного сохранения ответов
+@Data
+public class ProgressSummaryResponse {
+    private Long attemptId;
+    private Integer totalQuestions;
+    private Integer answeredCount;
+    private Integer savedCount;
+    private Integer timeLeftMinutes;
+}
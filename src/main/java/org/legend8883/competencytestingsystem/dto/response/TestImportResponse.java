@@ -0,0 +1,13 @@
+package org.legend8883.competencytestingsystem.dto.response;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TestImportResponse {
+    private int importedCount;
+    private int failedCount;
+    private List<TestImportResultResponse> results = new ArrayList<>();
+}
@@ -0,0 +1,14 @@
+package org.legend8883.competencytestingsystem.dto.response;
+
+import lombok.Data;
+
+// Итог импорта одного теста: index - порядковый номер теста во входном потоке
+@Data
+public class TestImportResultResponse {
+    private int index;
+    private String title;
+    private boolean success;
+    private Long testId;
+    private int questionCount;
+    private String error;
+}
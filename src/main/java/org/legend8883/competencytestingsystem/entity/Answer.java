@@ -4,9 +4,10 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 @Entity
@@ -17,7 +18,8 @@ import java.util.List;
 public class Answer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answers_seq")
+    @SequenceGenerator(name = "answers_seq", sequenceName = "answers_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -28,9 +30,11 @@ public class Answer {
     @JoinColumn(name = "question_id", nullable = false)
     private Question question;
 
-    // Для вопросов с выбором: выбранные варианты
-    @OneToMany(mappedBy = "answer", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
-    private List<UserSelectedOption> selectedOptions = new ArrayList<>();
+    // Для вопросов с выбором: id выбранных вариантов в самой строке ответа (bigint[]),
+    // null - ничего не выбрано
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "selected_option_ids", columnDefinition = "bigint[]")
+    private Long[] selectedOptionIds;
 
     // Для открытых вопросов: текстовый ответ
     @Column(name = "open_answer_text", columnDefinition = "TEXT")
@@ -52,25 +56,15 @@ public class Answer {
         answeredAt = LocalDateTime.now();
     }
 
-    // Геттер для удобства - преобразует selectedOptions в List<Long>
-    @Transient
+    // Геттер для удобства - выбранные варианты в порядке выбора, пустой список если их нет
     public List<Long> getSelectedOptionIds() {
-        return selectedOptions.stream()
-                .map(UserSelectedOption::getOptionId)
-                .toList();
+        return selectedOptionIds != null ? List.of(selectedOptionIds) : List.of();
     }
 
-    // Сеттер для удобства - преобразует List<Long> в selectedOptions
-    @Transient
+    // Сеттер для удобства - новый массив, чтобы Hibernate увидел изменение
     public void setSelectedOptionIds(List<Long> optionIds) {
-        this.selectedOptions.clear();
-        if (optionIds != null) {
-            for (Long optionId : optionIds) {
-                UserSelectedOption userOption = new UserSelectedOption();
-                userOption.setAnswer(this);
-                userOption.setOptionId(optionId);
-                this.selectedOptions.add(userOption);
-            }
-        }
+        this.selectedOptionIds = optionIds == null || optionIds.isEmpty()
+                ? null
+                : optionIds.toArray(Long[]::new);
     }
 }
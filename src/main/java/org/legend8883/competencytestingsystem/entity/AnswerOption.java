@@ -5,16 +5,22 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.legend8883.competencytestingsystem.cache.CacheRegions;
 
 @Entity
 @Table(name = "answer_options")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.ANSWER_OPTIONS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AnswerOption {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answer_options_seq")
+    @SequenceGenerator(name = "answer_options_seq", sequenceName = "answer_options_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
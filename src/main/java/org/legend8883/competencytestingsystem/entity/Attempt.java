@@ -17,7 +17,8 @@ import java.util.List;
 public class Attempt {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attempts_seq")
+    @SequenceGenerator(name = "attempts_seq", sequenceName = "attempts_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -5,6 +5,9 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.legend8883.competencytestingsystem.cache.CacheRegions;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,13 +15,16 @@ import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "questions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QUESTIONS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Question {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "questions_seq")
+    @SequenceGenerator(name = "questions_seq", sequenceName = "questions_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Текст вопроса обязателен")
@@ -37,6 +43,7 @@ public class Question {
 
     // Варианты ответов (только для типов SINGLE_CHOICE и MULTIPLE_CHOICE)
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QUESTION_OPTIONS)
     @OrderBy("orderIndex ASC")
     private List<AnswerOption> options = new ArrayList<>();
 
@@ -5,6 +5,9 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.legend8883.competencytestingsystem.cache.CacheRegions;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,6 +15,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "tests")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TESTS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,8 +58,20 @@ public class Test {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Агрегаты по вопросам: хранятся в строке теста, чтобы списки не загружали вопросы.
+    // Обновляются TestService при каждом изменении вопросов
+    @Column(name = "question_count", nullable = false)
+    private Integer questionCount = 0;
+
+    @Column(name = "max_possible_score", nullable = false)
+    private Integer maxPossibleScore = 0;
+
+    @Column(name = "has_open_questions", nullable = false)
+    private Boolean hasOpenQuestions = false;
+
     // Связь с вопросами
     @OneToMany(mappedBy = "test", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.TEST_QUESTIONS)
     @OrderBy("orderIndex ASC")
     private List<Question> questions = new ArrayList<>();
     @PrePersist
@@ -67,11 +84,4 @@ public class Test {
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
     }
-
-    @Transient
-    public Integer getMaxPossibleScore() {
-        return questions.stream()
-                .mapToInt(Question::getMaxScore)
-                .sum();
-    }
 }
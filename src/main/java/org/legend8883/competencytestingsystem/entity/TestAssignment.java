@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 public class TestAssignment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "test_assignments_seq")
+    @SequenceGenerator(name = "test_assignments_seq", sequenceName = "test_assignments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
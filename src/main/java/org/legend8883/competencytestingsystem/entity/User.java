@@ -56,6 +56,10 @@ public class User implements UserDetails {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Стартовый тест из шаблона еще не создан (только HR)
+    @Column(name = "default_test_pending", nullable = false)
+    private Boolean defaultTestPending = false;
+
     // UserDetails methods
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
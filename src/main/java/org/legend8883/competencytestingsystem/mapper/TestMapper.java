@@ -5,18 +5,21 @@ import org.legend8883.competencytestingsystem.dto.response.TestResponse;
 import org.legend8883.competencytestingsystem.entity.Test;
 import org.mapstruct.*;
 
-import java.util.List;
-
 @Mapper(componentModel = "spring", uses = {QuestionMapper.class, UserMapper.class})
 public interface TestMapper extends BaseMapper<Test, TestResponse> {
 
-    // Entity → DTO
+    // Entity → DTO (questionCount и maxPossibleScore - колонки теста)
     @Override
-    @Mapping(source = "questions", target = "questionCount", qualifiedByName = "countQuestions")
-    @Mapping(target = "maxPossibleScore", expression = "java(calculateMaxPossibleScore(test))")
     @Mapping(source = "createdBy", target = "createdBy")
     TestResponse toDto(Test test);
 
+    // Entity → DTO для списков: без вопросов, коллекция не загружается.
+    // @Named - иначе MapStruct не выберет между toDto и toSummaryDto в toDtoList
+    @Named("summary")
+    @Mapping(source = "createdBy", target = "createdBy")
+    @Mapping(target = "questions", ignore = true)
+    TestResponse toSummaryDto(Test test);
+
     // CreateTestRequest → Entity
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
@@ -24,6 +27,9 @@ public interface TestMapper extends BaseMapper<Test, TestResponse> {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "questions", ignore = true)
+    @Mapping(target = "questionCount", ignore = true)
+    @Mapping(target = "maxPossibleScore", ignore = true)
+    @Mapping(target = "hasOpenQuestions", ignore = true)
     Test toEntity(CreateTestRequest request);
 
     // DTO → Entity (из BaseMapper - нужно переопределить)
@@ -33,22 +39,11 @@ public interface TestMapper extends BaseMapper<Test, TestResponse> {
     @Mapping(target = "questions", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "questionCount", ignore = true)
+    @Mapping(target = "maxPossibleScore", ignore = true)
+    @Mapping(target = "hasOpenQuestions", ignore = true)
     Test toEntity(TestResponse dto);
 
-    // Метод для подсчета вопросов
-    @Named("countQuestions")
-    default Integer countQuestions(List<?> questions) {
-        return questions != null ? questions.size() : 0;
-    }
-
-    // Метод для вычисления максимального балла
-    default Integer calculateMaxPossibleScore(Test test) {
-        if (test.getQuestions() == null) return 0;
-        return test.getQuestions().stream()
-                .mapToInt(q -> q.getMaxScore() != null ? q.getMaxScore() : 0)
-                .sum();
-    }
-
     // Обновление теста из DTO
     @Override
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -56,5 +51,8 @@ public interface TestMapper extends BaseMapper<Test, TestResponse> {
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "questions", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "questionCount", ignore = true)
+    @Mapping(target = "maxPossibleScore", ignore = true)
+    @Mapping(target = "hasOpenQuestions", ignore = true)
     void updateEntityFromDto(TestResponse dto, @MappingTarget Test entity);
 }
@@ -21,6 +21,7 @@ public interface UserMapper {
     @Mapping(target = "role", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "defaultTestPending", ignore = true)
     User toEntity(UserSimpleResponse dto);
 
     // RegisterRequest → User
@@ -29,6 +30,7 @@ public interface UserMapper {
     @Mapping(target = "role", constant = "EMPLOYEE")
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "defaultTestPending", ignore = true)
     User toEntity(RegisterRequest registerRequest);
 
     // Список пользователей
@@ -40,5 +42,6 @@ public interface UserMapper {
     @Mapping(target = "role", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "defaultTestPending", ignore = true)
     void updateEntityFromDto(UserSimpleResponse dto, @MappingTarget User entity);
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.entity.AttemptStatus;
+import org.legend8883.competencytestingsystem.repository.AttemptRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Попытки в процессе (app.attempts.active) и очередь проверки (app.evaluation.queue).
+ * Значения считаются одним запросом по расписанию, а не на каждый опрос Prometheus;
+ * это счетчики по всей БД, каждый узел отдает одно и то же значение.
+ */
+@Slf4j
+@Component
+public class AttemptGauges implements MeterBinder {
+
+    private final AttemptRepository attemptRepository;
+    private final AtomicLong inProgress = new AtomicLong();
+    private final AtomicLong evaluating = new AtomicLong();
+
+    public AttemptGauges(AttemptRepository attemptRepository) {
+        this.attemptRepository = attemptRepository;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.attempts.active", inProgress, AtomicLong::get)
+                .description("Попытки в статусе IN_PROGRESS")
+                .register(registry);
+        Gauge.builder("app.evaluation.queue", evaluating, AtomicLong::get)
+                .description("Попытки, ожидающие проверки HR (EVALUATING)")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.gauge-refresh-ms:15000}")
+    public void refresh() {
+        try {
+            long active = 0;
+            long queued = 0;
+            for (Object[] row : attemptRepository.countByStatuses(
+                    List.of(AttemptStatus.IN_PROGRESS, AttemptStatus.EVALUATING))) {
+                if (row[0] == AttemptStatus.IN_PROGRESS) {
+                    active = (Long) row[1];
+                } else {
+                    queued = (Long) row[1];
+                }
+            }
+            inProgress.set(active);
+            evaluating.set(queued);
+        } catch (RuntimeException e) {
+            // Старое значение остается до следующего обновления
+            log.warn("Attempt gauges refresh failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Число SQL на HTTP-запрос: app.request.statements{method, uri}.
+ * uri - шаблон эндпоинта (/api/employee/attempts/{attemptId}/complete), а не фактический путь,
+ * запросы мимо контроллеров попадают в UNKNOWN - набор тегов остается ограниченным.
+ */
+@Component
+public class RequestStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestStatementMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long before = StatementCountingInspector.current();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("app.request.statements")
+                    .description("SQL-запросов Hibernate на HTTP-запрос")
+                    .tags("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : UNKNOWN)
+                    .register(meterRegistry)
+                    .record(StatementCountingInspector.current() - before);
+        }
+    }
+}
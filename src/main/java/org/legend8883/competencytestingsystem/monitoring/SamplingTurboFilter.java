@@ -0,0 +1,53 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Выборочное логирование шумных логгеров: DEBUG и INFO событий логгера
+ * (или пакета) пропускается только заданная доля, WARN и выше - всегда.
+ * Настраивается в logback-spring.xml: {@code <sample>имя.логгера=0.01</sample>}.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private record Sample(String prefix, double ratio) {
+    }
+
+    private final List<Sample> samples = new ArrayList<>();
+
+    public void addSample(String sample) {
+        int separator = sample.lastIndexOf('=');
+        if (separator <= 0) {
+            addError("Sample must look like logger.name=ratio: " + sample);
+            return;
+        }
+        double ratio = Double.parseDouble(sample.substring(separator + 1).trim());
+        samples.add(new Sample(sample.substring(0, separator).trim(), Math.max(0, Math.min(1, ratio))));
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+                              Object[] params, Throwable t) {
+        // format == null - проверка isDebugEnabled(): решение принимается на самом событии
+        if (format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        String name = logger.getName();
+        for (Sample sample : samples) {
+            if (name.startsWith(sample.prefix())) {
+                return ThreadLocalRandom.current().nextDouble() < sample.ratio()
+                        ? FilterReply.NEUTRAL
+                        : FilterReply.DENY;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,68 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.config.SqlBudgetProperties;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Бюджет SQL на HTTP-запрос (app.sql-budget). Запрос сверх бюджета эндпоинта
+ * увеличивает app.request.statements.over_budget и пишется в лог вместе с самыми
+ * частыми отпечатками запросов - так видны N+1 и запросы в цикле.
+ */
+@Slf4j
+@Component
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlBudgetFilter(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        try (StatementCapture capture = StatementCapture.start()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                check(request, capture);
+            }
+        }
+    }
+
+    private void check(HttpServletRequest request, StatementCapture capture) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN;
+        int limit = properties.limitFor(uri);
+        if (capture.count() <= limit) {
+            return;
+        }
+
+        meterRegistry.counter("app.request.statements.over_budget",
+                "method", request.getMethod(), "uri", uri).increment();
+        log.warn("SQL budget exceeded: {} {} executed {} statements (budget {}), most frequent:{}",
+                request.getMethod(), uri, capture.count(), limit,
+                capture.describe(properties.getLogFingerprints()));
+    }
+}
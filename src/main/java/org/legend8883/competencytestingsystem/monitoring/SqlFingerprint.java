@@ -0,0 +1,28 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import java.util.regex.Pattern;
+
+/**
+ * Отпечаток SQL: литералы заменены на ?, списки IN (?, ?, ...) свернуты,
+ * пробелы нормализованы. Одинаковые запросы с разными параметрами дают один отпечаток.
+ */
+public final class SqlFingerprint {
+
+    private static final int MAX_LENGTH = 300;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlFingerprint() {
+    }
+
+    public static String of(String sql) {
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+        fingerprint = PARAMETER_LIST.matcher(fingerprint).replaceAll("(?...)");
+        return fingerprint.length() > MAX_LENGTH ? fingerprint.substring(0, MAX_LENGTH) + "..." : fingerprint;
+    }
+}
@@ -0,0 +1,110 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Запись SQL текущего потока с отпечатками: бюджет запросов на HTTP-запрос
+ * и проверки числа запросов в тестах.
+ * <pre>
+ * try (StatementCapture capture = StatementCapture.start()) {
+ *     mockMvc.perform(post("/api/employee/attempts/{id}/complete", attemptId));
+ *     capture.assertAtMost(12);
+ * }
+ * </pre>
+ * Записи могут быть вложенными: каждая видит все запросы, выполненные после ее начала.
+ */
+public final class StatementCapture implements AutoCloseable {
+
+    private static final ThreadLocal<List<StatementCapture>> ACTIVE = new ThreadLocal<>();
+
+    // Сколько текстов хранится для отчета; счет идет дальше без ограничения
+    private static final int MAX_RECORDED = 10_000;
+
+    // Тексты как есть: отпечатки считаются только для отчета, а не на каждый запрос
+    private final List<String> statements = new ArrayList<>();
+    private int count;
+
+    private StatementCapture() {
+    }
+
+    public static StatementCapture start() {
+        List<StatementCapture> active = ACTIVE.get();
+        if (active == null) {
+            active = new ArrayList<>(2);
+            ACTIVE.set(active);
+        }
+        StatementCapture capture = new StatementCapture();
+        active.add(capture);
+        return capture;
+    }
+
+    // Вызывается из StatementCountingInspector; без активной записи ничего не делает
+    static void record(String sql) {
+        List<StatementCapture> active = ACTIVE.get();
+        if (active == null) {
+            return;
+        }
+        for (StatementCapture capture : active) {
+            capture.count++;
+            if (capture.statements.size() < MAX_RECORDED) {
+                capture.statements.add(sql);
+            }
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    // Отпечатки по убыванию числа выполнений
+    public List<Map.Entry<String, Integer>> top(int limit) {
+        Map<String, Integer> fingerprints = new LinkedHashMap<>();
+        for (String sql : statements) {
+            fingerprints.merge(SqlFingerprint.of(sql), 1, Integer::sum);
+        }
+        return fingerprints.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    public void assertCount(int expected) {
+        if (count != expected) {
+            throw new AssertionError("Expected " + expected + " SQL statements but was " + count + describe());
+        }
+    }
+
+    public void assertAtMost(int max) {
+        if (count > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but was " + count + describe());
+        }
+    }
+
+    public String describe(int limit) {
+        return top(limit).stream()
+                .map(entry -> entry.getValue() + "x " + entry.getKey())
+                .collect(Collectors.joining("\n  ", "\n  ", ""));
+    }
+
+    private String describe() {
+        return describe(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() {
+        List<StatementCapture> active = ACTIVE.get();
+        if (active == null) {
+            return;
+        }
+        active.remove(this);
+        if (active.isEmpty()) {
+            ACTIVE.remove();
+        }
+    }
+}
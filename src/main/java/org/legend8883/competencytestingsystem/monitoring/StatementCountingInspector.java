@@ -0,0 +1,25 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Счетчик SQL, которые Hibernate готовит в текущем потоке (JPQL, нативные запросы,
+ * пакетные INSERT/UPDATE - один prepare на пакет). Счетчик только растет,
+ * поэтому несколько наблюдателей берут разницу значений и не мешают друг другу.
+ * Тексты запросов передаются в активные StatementCapture этого потока.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        StatementCapture.record(sql);
+        return sql;
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,91 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Отслеживает закрепление виртуальных потоков за несущим потоком (JFR jdk.VirtualThreadPinned):
+ * блокировка внутри synchronized или native-кадра держит carrier, и пул несущих
+ * потоков перестает масштабироваться. Каждое событие длиннее порога
+ * попадает в лог с верхними кадрами стека и в метрику jvm.threads.virtual.pinned.
+ * Работает только при spring.threads.virtual.enabled=true.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinning-threshold-ms:20}") long thresholdMs) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Закрепления виртуальных потоков длиннее порога")
+                .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned.duration")
+                .description("Длительность закрепления виртуальных потоков")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started, threshold {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+        log.warn("Virtual thread pinned for {} ms on {}:\n{}",
+                event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                topFrames(event.getStackTrace()));
+    }
+
+    private static String topFrames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "    <no stack trace>";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "    at " + frame.getMethod().getType().getName() + "."
+                        + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
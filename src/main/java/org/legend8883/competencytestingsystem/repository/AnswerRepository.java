@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,12 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
             "ORDER BY q.orderIndex")
     List<Answer> findByAttemptWithQuestions(@Param("attempt") Attempt attempt);
 
+    // Ответы незавершенных попыток (сброс черновиков сессии)
+    @Query("SELECT a FROM Answer a " +
+            "WHERE a.attempt.id IN :attemptIds " +
+            "AND a.attempt.status = org.legend8883.competencytestingsystem.entity.AttemptStatus.IN_PROGRESS")
+    List<Answer> findInProgressByAttemptIds(@Param("attemptIds") Collection<Long> attemptIds);
+
     // Найти открытые вопросы требующие проверки
     @Query("SELECT a FROM Answer a " +
             "LEFT JOIN FETCH a.question q " +
@@ -40,6 +47,26 @@ public interface AnswerRepository extends JpaRepository<Answer, Long> {
 
     long countByAttempt(Attempt attempt);
 
+    // Вопросы попытки, на которые уже есть содержательный ответ
+    @Query("SELECT a.question.id FROM Answer a " +
+            "WHERE a.attempt.id = :attemptId " +
+            "AND ((a.openAnswerText IS NOT NULL AND TRIM(a.openAnswerText) <> '') " +
+            "OR a.selectedOptionIds IS NOT NULL)")
+    List<Long> findAnsweredQuestionIds(@Param("attemptId") Long attemptId);
+
+    @Query("SELECT COUNT(a) FROM Answer a " +
+            "WHERE a.attempt.id = :attemptId " +
+            "AND ((a.openAnswerText IS NOT NULL AND TRIM(a.openAnswerText) <> '') " +
+            "OR a.selectedOptionIds IS NOT NULL)")
+    long countAnsweredByAttemptId(@Param("attemptId") Long attemptId);
+
+    // Открытые ответы попытки без оценки HR
+    @Query("SELECT COUNT(a) FROM Answer a " +
+            "WHERE a.attempt.id = :attemptId " +
+            "AND a.question.type = org.legend8883.competencytestingsystem.entity.QuestionType.OPEN_ANSWER " +
+            "AND a.assignedScore IS NULL")
+    long countUnevaluatedOpenAnswers(@Param("attemptId") Long attemptId);
+
     @Query("SELECT a FROM Answer a LEFT JOIN FETCH a.question WHERE a.id = :id")
     Optional<Answer> findByIdWithQuestion(@Param("id") Long id);
 }
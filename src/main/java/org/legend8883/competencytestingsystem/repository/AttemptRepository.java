@@ -1,15 +1,24 @@
 package org.legend8883.competencytestingsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.legend8883.competencytestingsystem.dto.response.AttemptResponse;
+import org.legend8883.competencytestingsystem.dto.response.AttemptResponseWithDetails;
 import org.legend8883.competencytestingsystem.entity.Attempt;
 import org.legend8883.competencytestingsystem.entity.AttemptStatus;
 import org.legend8883.competencytestingsystem.entity.Test;
 import org.legend8883.competencytestingsystem.entity.User;
+import org.legend8883.competencytestingsystem.scheduler.AttemptDeadline;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +38,34 @@ public interface AttemptRepository extends JpaRepository<Attempt, Long> {
             "AND a.autoSubmitAt <= :now")
     List<Attempt> findAttemptsForAutoSubmit(@Param("now") LocalDateTime now);
 
+    // Дедлайны всех открытых попыток (загрузка колеса таймеров при старте)
+    @Query("SELECT new org.legend8883.competencytestingsystem.scheduler.AttemptDeadline(a.id, a.autoSubmitAt) " +
+            "FROM Attempt a WHERE a.status = org.legend8883.competencytestingsystem.entity.AttemptStatus.IN_PROGRESS " +
+            "AND a.autoSubmitAt IS NOT NULL")
+    List<AttemptDeadline> findOpenAttemptDeadlines();
+
+    // Только id просроченных попыток, порциями
+    @Query("SELECT a.id FROM Attempt a WHERE a.status = org.legend8883.competencytestingsystem.entity.AttemptStatus.IN_PROGRESS " +
+            "AND a.autoSubmitAt <= :now ORDER BY a.autoSubmitAt")
+    List<Long> findAttemptIdsForAutoSubmit(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Автозавершение пакета одним запросом: балл - сумма баллов ответов,
+    // тесты с открытыми вопросами уходят на проверку HR
+    // Native spaces: Hibernate сбросит только кэш по attempts, а не весь второй уровень
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "attempts"))
+    @Query(value = "UPDATE attempts a SET " +
+            "status = CASE WHEN (SELECT t.has_open_questions FROM tests t WHERE t.id = a.test_id) " +
+            "THEN 'EVALUATING' ELSE 'AUTO_SUBMITTED' END, " +
+            "score = COALESCE((SELECT SUM(COALESCE(an.assigned_score, an.auto_score, 0)) " +
+            "FROM answers an WHERE an.attempt_id = a.id), 0), " +
+            "completed_at = :now " +
+            "WHERE a.id IN (:ids) AND a.status = 'IN_PROGRESS' AND a.auto_submit_at <= :dueBefore",
+            nativeQuery = true)
+    int autoSubmit(@Param("ids") List<Long> ids,
+                   @Param("dueBefore") LocalDateTime dueBefore,
+                   @Param("now") LocalDateTime now);
+
     // Найти попытки для проверки HR (с открытыми вопросами)
     @Query("SELECT DISTINCT a FROM Attempt a " +
             "LEFT JOIN FETCH a.user " +
@@ -37,6 +74,50 @@ public interface AttemptRepository extends JpaRepository<Attempt, Long> {
             "ORDER BY a.completedAt DESC")
     List<Attempt> findByStatusWithDetails(@Param("status") AttemptStatus status);
 
+    // Кто из сотрудников пачки уже начинал тест (массовое назначение)
+    @Query("SELECT DISTINCT a.user.id FROM Attempt a WHERE a.test.id = :testId AND a.user.id IN :userIds")
+    List<Long> findUserIdsWithAttempts(@Param("testId") Long testId,
+                                       @Param("userIds") Collection<Long> userIds);
+
+    // Все попытки сотрудника одним запросом, сразу в DTO
+    @Query("SELECT new org.legend8883.competencytestingsystem.dto.response.AttemptResponseWithDetails(" +
+            "a.id, t.id, t.title, u.id, u.email, u.firstName, u.lastName, u.role, " +
+            "a.startedAt, a.completedAt, a.score, a.status, t.passingScore, " +
+            "t.maxPossibleScore, t.questionCount, t.hasOpenQuestions) " +
+            "FROM Attempt a JOIN a.test t JOIN a.user u " +
+            "WHERE u.id = :userId " +
+            "ORDER BY a.id")
+    List<AttemptResponseWithDetails> findEmployeeAttempts(@Param("userId") Long userId);
+
+    // Страница попыток по тестам HR (keyset по id, новые сверху) сразу в DTO
+    @Query("SELECT new org.legend8883.competencytestingsystem.dto.response.AttemptResponse(" +
+            "a.id, t.id, t.title, u.id, u.email, u.firstName, u.lastName, u.role, " +
+            "a.startedAt, a.completedAt, a.score, a.status, t.passingScore) " +
+            "FROM Attempt a JOIN a.test t JOIN a.user u " +
+            "WHERE t.createdBy.id = :hrId " +
+            "AND a.status IN :statuses " +
+            "AND (:testId IS NULL OR t.id = :testId) " +
+            "AND a.startedAt >= :from AND a.startedAt < :to " +
+            "AND a.id < :cursor " +
+            "ORDER BY a.id DESC")
+    List<AttemptResponse> findHrAttemptPage(@Param("hrId") Long hrId,
+                                            @Param("statuses") Collection<AttemptStatus> statuses,
+                                            @Param("testId") Long testId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("cursor") Long cursor,
+                                            Pageable pageable);
+
+    // Количество попыток по статусам для тестов HR (бейджи вкладок)
+    @Query("SELECT a.status, COUNT(a) FROM Attempt a " +
+            "WHERE a.test.createdBy.id = :hrId " +
+            "GROUP BY a.status")
+    List<Object[]> countByStatusForHr(@Param("hrId") Long hrId);
+
+    // Количество попыток по статусам во всей системе (метрики)
+    @Query("SELECT a.status, COUNT(a) FROM Attempt a WHERE a.status IN :statuses GROUP BY a.status")
+    List<Object[]> countByStatuses(@Param("statuses") Collection<AttemptStatus> statuses);
+
     // Найти попытки по статусу
     List<Attempt> findByStatus(AttemptStatus status);
 }
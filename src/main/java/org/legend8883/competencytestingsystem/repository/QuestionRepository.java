@@ -1,9 +1,12 @@
 package org.legend8883.competencytestingsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.legend8883.competencytestingsystem.entity.Question;
 import org.legend8883.competencytestingsystem.entity.Test;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,8 +18,9 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
 
     List<Question> findByTest(Test test);
 
-    // Найти вопросы теста с вариантами ответов
+    // Найти вопросы теста с вариантами ответов (кэш запросов: id из кэша, сущности из L2)
     @Query("SELECT q FROM Question q LEFT JOIN FETCH q.options WHERE q.test = :test ORDER BY q.orderIndex")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Question> findByTestWithOptions(@Param("test") Test test);
 
     // Найти вопрос с вариантами ответов по ID
@@ -0,0 +1,34 @@
+package org.legend8883.competencytestingsystem.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.legend8883.competencytestingsystem.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    // Захватить аренду: вставка или перехват просроченной; 1 - аренда наша
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "scheduler_leases"))
+    @Query(value = "INSERT INTO scheduler_leases (name, owner, expires_at) " +
+            "VALUES (:name, :owner, :expiresAt) " +
+            "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, expires_at = EXCLUDED.expires_at " +
+            "WHERE scheduler_leases.expires_at < :now OR scheduler_leases.owner = EXCLUDED.owner",
+            nativeQuery = true)
+    int tryAcquire(@Param("name") String name,
+                   @Param("owner") String owner,
+                   @Param("expiresAt") LocalDateTime expiresAt,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM SchedulerLease l WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+}
@@ -1,14 +1,19 @@
 package org.legend8883.competencytestingsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.legend8883.competencytestingsystem.entity.Test;
 import org.legend8883.competencytestingsystem.entity.TestAssignment;
 import org.legend8883.competencytestingsystem.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +36,33 @@ public interface TestAssignmentRepository extends JpaRepository<TestAssignment,
 
     Optional<TestAssignment> findByUserAndTest(User user, Test test);
 
+    // Доступные назначения сотрудника вместе с тестом и автором (для сводки): просроченные
+    // снимает фоновая задача, поэтому здесь только равенства по индексу
+    @Query("SELECT ta FROM TestAssignment ta " +
+            "JOIN FETCH ta.test t " +
+            "JOIN FETCH t.createdBy " +
+            "WHERE ta.user.id = :userId " +
+            "AND ta.isActive = true " +
+            "AND ta.isCompleted = false")
+    List<TestAssignment> findAvailableByUserId(@Param("userId") Long userId);
+
+    // Назначения теста для пачки сотрудников (массовое назначение)
+    @Query("SELECT ta FROM TestAssignment ta WHERE ta.test.id = :testId AND ta.user.id IN :userIds")
+    List<TestAssignment> findByTestIdAndUserIds(@Param("testId") Long testId,
+                                                @Param("userIds") Collection<Long> userIds);
+
+    // Деактивировать порцию просроченных назначений одним UPDATE.
+    // SKIP LOCKED - несколько узлов не ждут друг друга на одних строках
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "test_assignments"))
+    @Query(value = "UPDATE test_assignments SET is_active = false " +
+            "WHERE id IN (SELECT id FROM test_assignments " +
+            "WHERE is_active = true AND is_completed = false " +
+            "AND deadline IS NOT NULL AND deadline <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int deactivateOverdue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
     // Найти просроченные назначения
     @Query("SELECT ta FROM TestAssignment ta " +
             "WHERE ta.isActive = true " +
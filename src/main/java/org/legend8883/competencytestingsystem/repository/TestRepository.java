@@ -1,9 +1,12 @@
 package org.legend8883.competencytestingsystem.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.legend8883.competencytestingsystem.entity.Test;
 import org.legend8883.competencytestingsystem.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -21,6 +24,7 @@ public interface TestRepository extends JpaRepository<Test, Long> {
 
     // Найти тесты с вопросами
     @Query("SELECT DISTINCT t FROM Test t LEFT JOIN FETCH t.questions WHERE t.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Test> findByIdWithQuestions(@Param("id") Long id);
 
     List<Test> findByCreatedByAndIsActiveTrue(User createdBy);
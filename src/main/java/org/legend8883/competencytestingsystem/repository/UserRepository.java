@@ -3,6 +3,9 @@ package org.legend8883.competencytestingsystem.repository;
 import org.legend8883.competencytestingsystem.entity.Role;
 import org.legend8883.competencytestingsystem.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,4 +21,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(Role role);
 
     List<User> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
+
+    // Дешевая проверка перед записью: у большинства HR стартовый тест уже выдан
+    boolean existsByIdAndDefaultTestPendingTrue(Long id);
+
+    // Забрать право на создание стартового теста: 1 - только у одного вызывающего
+    @Modifying
+    @Query("UPDATE User u SET u.defaultTestPending = false " +
+            "WHERE u.id = :hrId AND u.defaultTestPending = true")
+    int claimDefaultTest(@Param("hrId") Long hrId);
 }
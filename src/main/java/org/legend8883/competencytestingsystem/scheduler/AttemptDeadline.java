@@ -0,0 +1,7 @@
+package org.legend8883.competencytestingsystem.scheduler;
+
+import java.time.LocalDateTime;
+
+// Дедлайн открытой попытки для загрузки колеса таймеров
+public record AttemptDeadline(Long attemptId, LocalDateTime autoSubmitAt) {
+}
@@ -0,0 +1,166 @@
+package org.legend8883.competencytestingsystem.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.config.AutoSubmitProperties;
+import org.legend8883.competencytestingsystem.repository.AttemptRepository;
+import org.legend8883.competencytestingsystem.service.AutoSubmitService;
+import org.legend8883.competencytestingsystem.service.SchedulerLeaseService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Автоотправка попыток по истечении времени.
+ * Дедлайны открытых попыток держатся в колесе таймеров (загружается при старте,
+ * новые попытки добавляются после коммита). Сработавшие попытки завершаются
+ * пакетами под арендой в БД, так что при нескольких узлах пакет обрабатывает один из них.
+ * Периодическая проверка по БД подбирает попытки, стартовавшие на других узлах.
+ */
+@Slf4j
+@Component
+public class AutoSubmitScheduler {
+
+    static final String LEASE_NAME = "attempt-auto-submit";
+
+    private final AttemptRepository attemptRepository;
+    private final AutoSubmitService autoSubmitService;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final AutoSubmitProperties properties;
+    private final HierarchicalTimingWheel wheel;
+
+    public AutoSubmitScheduler(AttemptRepository attemptRepository,
+                               AutoSubmitService autoSubmitService,
+                               SchedulerLeaseService schedulerLeaseService,
+                               AutoSubmitProperties properties) {
+        this.attemptRepository = attemptRepository;
+        this.autoSubmitService = autoSubmitService;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.properties = properties;
+        this.wheel = new HierarchicalTimingWheel(properties.getTickMs(), properties.getWheelSize(),
+                properties.getWheelLevels(), System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenAttempts() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<AttemptDeadline> deadlines = attemptRepository.findOpenAttemptDeadlines();
+        synchronized (wheel) {
+            for (AttemptDeadline deadline : deadlines) {
+                wheel.schedule(deadline.attemptId(), submitAtMillis(deadline.autoSubmitAt()));
+            }
+        }
+        log.info("Auto-submit wheel loaded with {} open attempts", deadlines.size());
+    }
+
+    /**
+     * Ставит таймер новой попытки. Внутри транзакции - только после коммита,
+     * чтобы не завершать попытку, которой еще нет в БД.
+     */
+    public void register(Long attemptId, LocalDateTime autoSubmitAt) {
+        if (!properties.isEnabled() || attemptId == null || autoSubmitAt == null) {
+            return;
+        }
+        long deadlineMs = submitAtMillis(autoSubmitAt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(attemptId, deadlineMs);
+                }
+            });
+        } else {
+            schedule(attemptId, deadlineMs);
+        }
+    }
+
+    // Снять таймер попытки, завершенной вручную
+    public void cancel(Long attemptId) {
+        synchronized (wheel) {
+            wheel.cancel(attemptId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auto-submit.tick-ms:1000}")
+    public void tick() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<Long> expired;
+        synchronized (wheel) {
+            expired = wheel.advance(System.currentTimeMillis());
+        }
+        if (!expired.isEmpty()) {
+            submitInBatches(expired);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auto-submit.sweep-interval-ms:60000}",
+            initialDelayString = "${app.auto-submit.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int batchSize = properties.getBatchSize();
+        List<Long> expired;
+        do {
+            expired = autoSubmitService.findExpiredAttemptIds(batchSize);
+            if (!expired.isEmpty() && !submitBatch(expired)) {
+                // Пакет обрабатывает другой узел - продолжим на следующей проверке
+                return;
+            }
+        } while (expired.size() == batchSize);
+    }
+
+    private void submitInBatches(List<Long> attemptIds) {
+        int batchSize = properties.getBatchSize();
+        for (int from = 0; from < attemptIds.size(); from += batchSize) {
+            List<Long> batch = attemptIds.subList(from, Math.min(from + batchSize, attemptIds.size()));
+            if (!submitBatch(batch)) {
+                // Не удалось - повторим на следующем тике
+                long retryAt = System.currentTimeMillis() + properties.getTickMs();
+                synchronized (wheel) {
+                    batch.forEach(id -> wheel.schedule(id, retryAt));
+                }
+            }
+        }
+    }
+
+    // true - пакет обработан этим узлом
+    private boolean submitBatch(List<Long> attemptIds) {
+        if (!schedulerLeaseService.tryAcquire(LEASE_NAME, properties.getLeaseTtlMs())) {
+            return false;
+        }
+        try {
+            int submitted = autoSubmitService.autoSubmit(List.copyOf(attemptIds));
+            if (submitted > 0) {
+                log.info("Auto-submitted {} of {} expired attempts", submitted, attemptIds.size());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Auto-submit batch failed: {}", e.getMessage());
+            return false;
+        } finally {
+            schedulerLeaseService.release(LEASE_NAME);
+        }
+    }
+
+    private void schedule(long attemptId, long deadlineMs) {
+        synchronized (wheel) {
+            wheel.schedule(attemptId, deadlineMs);
+        }
+    }
+
+    // Момент автоотправки: дедлайн плюс время на сброс черновиков сессии на всех узлах
+    private long submitAtMillis(LocalDateTime autoSubmitAt) {
+        return autoSubmitAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + autoSubmitService.graceMs();
+    }
+}
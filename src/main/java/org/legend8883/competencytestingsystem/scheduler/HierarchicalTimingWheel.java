@@ -0,0 +1,149 @@
+package org.legend8883.competencytestingsystem.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Иерархическое колесо таймеров для дедлайнов попыток.
+ * Уровень 0 хранит ближайшие {@code wheelSize} тиков, каждый следующий уровень
+ * покрывает в {@code wheelSize} раз больший интервал; при переходе через границу
+ * интервала ячейка верхнего уровня раскладывается по нижним.
+ * Добавление и отмена - O(1), продвижение на тик - O(число сработавших).
+ * Класс не потокобезопасен, синхронизацию обеспечивает вызывающий код.
+ */
+public class HierarchicalTimingWheel {
+
+    private record Entry(long id, long deadlineTick) {
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] spans;
+    private final List<List<ArrayDeque<Entry>>> levels;
+
+    // Дедлайны за пределами последнего уровня
+    private final List<Entry> overflow = new ArrayList<>();
+
+    // Актуальный дедлайн по id: запись с другим дедлайном считается отмененной
+    private final Map<Long, Long> deadlines = new HashMap<>();
+
+    // Сработавшие таймеры, отдаются из advance
+    private final List<Long> due = new ArrayList<>();
+
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levelCount, long nowMs) {
+        if (tickMs <= 0 || wheelSize < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.spans = new long[levelCount];
+        this.levels = new ArrayList<>(levelCount);
+
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            spans[level] = span;
+            List<ArrayDeque<Entry>> buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new ArrayDeque<>());
+            }
+            levels.add(buckets);
+            span = Math.multiplyExact(span, wheelSize);
+        }
+        this.currentTick = nowMs / tickMs;
+    }
+
+    /**
+     * Ставит (или переставляет) таймер для id.
+     */
+    public void schedule(long id, long deadlineMs) {
+        // Округляем вверх: таймер не должен сработать раньше дедлайна
+        long deadlineTick = Math.floorDiv(deadlineMs + tickMs - 1, tickMs);
+        deadlines.put(id, deadlineTick);
+        place(new Entry(id, deadlineTick));
+    }
+
+    public void cancel(long id) {
+        deadlines.remove(id);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Продвигает колесо до текущего времени и возвращает id сработавших таймеров.
+     */
+    public List<Long> advance(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            drain(levels.get(0).get(bucketIndex(currentTick, 0)));
+        }
+
+        List<Long> expired = new ArrayList<>(due);
+        due.clear();
+        return expired;
+    }
+
+    private void place(Entry entry) {
+        long delta = entry.deadlineTick() - currentTick;
+        if (delta <= 0) {
+            fire(entry);
+            return;
+        }
+
+        for (int level = 0; level < spans.length; level++) {
+            // Выбирается наименьший подходящий уровень, поэтому дедлайн всегда лежит
+            // в более позднем интервале уровня, чем текущий тик
+            if (delta < spans[level] * wheelSize) {
+                levels.get(level).get(bucketIndex(entry.deadlineTick(), level)).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private void cascade() {
+        for (int level = spans.length - 1; level > 0; level--) {
+            if (currentTick % spans[level] != 0) {
+                continue;
+            }
+            ArrayDeque<Entry> bucket = levels.get(level).get(bucketIndex(currentTick, level));
+            List<Entry> entries = new ArrayList<>(bucket);
+            bucket.clear();
+            entries.forEach(this::place);
+        }
+
+        long topSpan = spans[spans.length - 1] * wheelSize;
+        if (!overflow.isEmpty() && currentTick % topSpan == 0) {
+            List<Entry> entries = new ArrayList<>(overflow);
+            overflow.clear();
+            entries.forEach(this::place);
+        }
+    }
+
+    private void drain(ArrayDeque<Entry> bucket) {
+        Entry entry;
+        while ((entry = bucket.poll()) != null) {
+            fire(entry);
+        }
+    }
+
+    private void fire(Entry entry) {
+        Long deadlineTick = deadlines.get(entry.id());
+        if (deadlineTick != null && deadlineTick == entry.deadlineTick()) {
+            deadlines.remove(entry.id());
+            due.add(entry.id());
+        }
+    }
+
+    private int bucketIndex(long tick, int level) {
+        return (int) ((tick / spans[level]) % wheelSize);
+    }
+}
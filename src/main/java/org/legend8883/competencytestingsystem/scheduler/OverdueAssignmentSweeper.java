@@ -0,0 +1,58 @@
+package org.legend8883.competencytestingsystem.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.service.TestAssignmentService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Снимает активность с просроченных назначений порциями фиксированного размера,
+ * каждая порция - отдельная транзакция и один UPDATE.
+ */
+@Slf4j
+@Component
+public class OverdueAssignmentSweeper {
+
+    private final TestAssignmentService testAssignmentService;
+    private final int chunkSize;
+    private final Counter deactivatedCounter;
+    private final Timer sweepTimer;
+
+    public OverdueAssignmentSweeper(TestAssignmentService testAssignmentService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.assignments.overdue-sweep-chunk-size:500}") int chunkSize) {
+        this.testAssignmentService = testAssignmentService;
+        this.chunkSize = chunkSize;
+        this.deactivatedCounter = Counter.builder("assignments.overdue.deactivated")
+                .description("Назначения, деактивированные по истечении дедлайна")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("assignments.overdue.sweep")
+                .description("Длительность прохода по просроченным назначениям")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.assignments.overdue-sweep-interval-ms:60000}")
+    public void sweep() {
+        Timer.Sample sample = Timer.start();
+        int total = deactivateAll();
+        sample.stop(sweepTimer);
+        if (total > 0) {
+            log.info("Deactivated {} overdue assignments", total);
+        }
+    }
+
+    private int deactivateAll() {
+        int total = 0;
+        int updated;
+        do {
+            updated = testAssignmentService.deactivateOverdueAssignments(chunkSize);
+            deactivatedCounter.increment(updated);
+            total += updated;
+        } while (updated == chunkSize);
+        return total;
+    }
+}
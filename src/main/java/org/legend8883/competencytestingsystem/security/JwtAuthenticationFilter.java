@@ -6,11 +6,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.entity.User;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -24,7 +23,6 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
 
     @Override
     protected void doFilterInternal(
@@ -36,16 +34,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = parseJwt(request);
 
-            if (jwt != null && jwtUtil.isTokenValid(jwt)) {
-                String username = jwtUtil.extractEmail(jwt);
+            JwtClaims claims = jwt != null ? jwtUtil.verify(jwt) : null;
 
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (claims != null && !claims.isExpired()) {
+                if (claims.email() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    // Principal собирается из подписанных claims, без похода в users
+                    User principal = buildPrincipal(claims);
 
                     UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            principal.getAuthorities()
                     );
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -59,6 +58,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Лёгкий principal: заполнены только id, email и роль из токена.
+     * Остальные поля пользователя (имя, пароль) нужно загружать из БД явно.
+     */
+    private User buildPrincipal(JwtClaims claims) {
+        User principal = new User();
+        principal.setId(claims.userId());
+        principal.setEmail(claims.email());
+        principal.setRole(claims.role());
+        return principal;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
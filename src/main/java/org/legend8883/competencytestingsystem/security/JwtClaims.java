@@ -0,0 +1,15 @@
+package org.legend8883.competencytestingsystem.security;
+
+import org.legend8883.competencytestingsystem.entity.Role;
+
+import java.util.Date;
+
+/**
+ * Проверенные claims токена: разбираются один раз и дальше передаются целиком.
+ */
+public record JwtClaims(Long userId, String email, Role role, Date expiration) {
+
+    public boolean isExpired() {
+        return expiration.before(new Date());
+    }
+}
@@ -0,0 +1,32 @@
+package org.legend8883.competencytestingsystem.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+// Попадания и промахи кэша проверенных JWT: app.jwt.cache.requests{result}.
+// Время самой проверки пишет @Timed на JwtUtil.verify: app.jwt{operation=verify}
+@Component
+public class JwtMetrics implements MeterBinder {
+
+    private final JwtUtil jwtUtil;
+
+    public JwtMetrics(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("app.jwt.cache.requests", jwtUtil,
+                        util -> util.getVerificationCache().hitCount())
+                .tags("result", "hit")
+                .description("Проверки JWT, обслуженные из кэша")
+                .register(registry);
+        FunctionCounter.builder("app.jwt.cache.requests", jwtUtil,
+                        util -> util.getVerificationCache().missCount())
+                .tags("result", "miss")
+                .description("Проверки JWT с разбором токена и проверкой подписи")
+                .register(registry);
+    }
+}
@@ -1,17 +1,19 @@
 package org.legend8883.competencytestingsystem.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.legend8883.competencytestingsystem.config.JwtProperties;
 import org.legend8883.competencytestingsystem.entity.Role;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Component
 @RequiredArgsConstructor
@@ -19,6 +21,24 @@ public class JwtUtil {
 
     private final JwtProperties jwtProperties;
 
+    // Ключ и парсер неизменяемые и потокобезопасные - строим один раз
+    private SecretKey secretKey;
+    private JwtParser parser;
+    private JwtVerificationCache verificationCache;
+
+    @PostConstruct
+    void init() {
+        secretKey = jwtProperties.getSecretKey();
+        parser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        verificationCache = new JwtVerificationCache(
+                jwtProperties.getVerificationCacheSize(),
+                jwtProperties.getVerificationCacheTtlMs()
+        );
+    }
+
+    @Timed(value = "app.jwt", extraTags = {"operation", "generate"})
     public String generateToken(Long userId, String email, Role role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("email", email);
@@ -29,45 +49,64 @@ public class JwtUtil {
                 .subject(userId.toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtProperties.getExpirationMs()))
-                .signWith(jwtProperties.getSecretKey())
+                .signWith(secretKey)
                 .compact();
     }
 
+    /**
+     * Проверяет подпись и срок действия и возвращает все нужные claims за один разбор.
+     * Повторные запросы с тем же токеном в пределах TTL кэша обходятся без проверки подписи.
+     */
+    @Timed(value = "app.jwt", extraTags = {"operation", "verify"})
+    public JwtClaims verify(String token) {
+        long now = System.currentTimeMillis();
+        String cacheKey = JwtVerificationCache.hash(token);
+
+        JwtClaims cached = verificationCache.get(cacheKey, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        JwtClaims verified = new JwtClaims(
+                Long.parseLong(claims.getSubject()),
+                claims.get("email", String.class),
+                Role.valueOf(claims.get("role", String.class)),
+                claims.getExpiration()
+        );
+
+        verificationCache.put(cacheKey, verified, now);
+        return verified;
+    }
+
+    // Публичный: JwtMetrics обращается к нему через прокси @Timed
+    public JwtVerificationCache getVerificationCache() {
+        return verificationCache;
+    }
+
     public Long extractUserId(String token) {
-        return Long.parseLong(extractClaim(token, Claims::getSubject));
+        return verify(token).userId();
     }
 
     public String extractEmail(String token) {
-        return extractClaim(token, claims -> claims.get("email", String.class));
+        return verify(token).email();
     }
 
     public Role extractRole(String token) {
-        String roleStr = extractClaim(token, claims -> claims.get("role", String.class));
-        return Role.valueOf(roleStr);
+        return verify(token).role();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token).expiration();
     }
 
     public boolean isTokenValid(String token) {
-        return !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return !verify(token).isExpired();
     }
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(jwtProperties.getSecretKey())
-                    .build()
+            return parser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (Exception e) {
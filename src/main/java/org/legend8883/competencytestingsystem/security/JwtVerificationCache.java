@@ -0,0 +1,106 @@
+package org.legend8883.competencytestingsystem.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный по размеру кэш уже проверенных токенов.
+ * Ключ - SHA-256 от токена (сами токены в памяти не храним),
+ * запись живет не дольше TTL и не дольше срока действия токена.
+ */
+public class JwtVerificationCache {
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private record Entry(JwtClaims claims, long expiresAtMs) {
+    }
+
+    public JwtVerificationCache(int maxSize, long ttlMs) {
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+    }
+
+    public JwtClaims get(String key, long nowMs) {
+        if (maxSize <= 0) {
+            return null;
+        }
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.expiresAtMs() <= nowMs) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.claims();
+    }
+
+    public void put(String key, JwtClaims claims, long nowMs) {
+        if (maxSize <= 0) {
+            return;
+        }
+
+        long expiresAtMs = Math.min(nowMs + ttlMs, claims.expiration().getTime());
+        if (expiresAtMs <= nowMs) {
+            return;
+        }
+
+        if (entries.size() >= maxSize) {
+            evict(nowMs);
+        }
+
+        entries.put(key, new Entry(claims, expiresAtMs));
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Сначала выкидываем протухшие записи, если не помогло - освобождаем четверть кэша
+    private void evict(long nowMs) {
+        entries.values().removeIf(entry -> entry.expiresAtMs() <= nowMs);
+        if (entries.size() < maxSize) {
+            return;
+        }
+
+        int toRemove = Math.max(1, maxSize / 4);
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (toRemove > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            toRemove--;
+        }
+    }
+
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
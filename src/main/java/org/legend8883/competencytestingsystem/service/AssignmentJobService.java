@@ -0,0 +1,166 @@
+package org.legend8883.competencytestingsystem.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.dto.request.AssignTestRequest;
+import org.legend8883.competencytestingsystem.dto.response.AssignmentJobResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Фоновое назначение теста большим группам сотрудников.
+ * Пачка сотрудников - отдельная короткая транзакция, поэтому блокировки не держатся
+ * на все назначение; ход выполнения доступен по id задачи.
+ * Задачи выполняются по одной и хранятся в памяти узла.
+ */
+@Slf4j
+@Service
+public class AssignmentJobService {
+
+    private final TestAssignmentService testAssignmentService;
+    private final int asyncThreshold;
+    private final Duration retention;
+
+    private final Map<String, AssignmentJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    public AssignmentJobService(TestAssignmentService testAssignmentService,
+                                @Value("${app.assignments.async-threshold:500}") int asyncThreshold,
+                                @Value("${app.assignments.job-retention-minutes:60}") long retentionMinutes,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.testAssignmentService = testAssignmentService;
+        this.asyncThreshold = asyncThreshold;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        // Задачи по-прежнему выполняются по одной; меняется только вид потока
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("assignment-jobs-", 0).factory()
+                : Thread.ofPlatform().name("assignment-jobs").daemon(true).factory();
+        this.executor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    // Считаются разные сотрудники: повторы id в запросе не делают назначение большим
+    public boolean shouldRunAsync(AssignTestRequest request) {
+        return new HashSet<>(request.getUserIds()).size() > asyncThreshold;
+    }
+
+    public AssignmentJobResponse start(Long testId, AssignTestRequest request, Long hrId) {
+        // Права проверяются сразу, чтобы HR получил ошибку в ответе, а не в статусе задачи
+        testAssignmentService.checkCanAssign(testId, hrId);
+        removeExpiredJobs();
+
+        List<List<Long>> chunks = testAssignmentService.chunks(request.getUserIds());
+        AssignmentJob job = new AssignmentJob(UUID.randomUUID().toString(), testId, hrId,
+                chunks.stream().mapToInt(List::size).sum());
+        jobs.put(job.id, job);
+
+        executor.execute(() -> run(job, chunks, request.getDeadline()));
+        return job.toResponse();
+    }
+
+    public AssignmentJobResponse getJob(String jobId, Long hrId) {
+        AssignmentJob job = jobs.get(jobId);
+        if (job == null || !job.hrId.equals(hrId)) {
+            throw new RuntimeException("Assignment job not found");
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(AssignmentJob job, List<List<Long>> chunks, LocalDateTime deadline) {
+        job.started();
+        try {
+            for (List<Long> chunk : chunks) {
+                Map<Long, String> failures = new LinkedHashMap<>();
+                int assigned = testAssignmentService.assignChunk(job.testId, job.hrId, chunk, deadline, failures);
+                job.chunkDone(chunk.size(), assigned, failures);
+            }
+            job.finished(null);
+            log.info("Assignment job {} finished: {} of {} users assigned",
+                    job.id, job.toResponse().getAssignedUsers(), job.totalUsers);
+        } catch (RuntimeException e) {
+            // Уже обработанные пачки остаются назначенными
+            log.error("Assignment job {} failed: {}", job.id, e.getMessage());
+            job.finished(e.getMessage());
+        }
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinishedBefore(threshold));
+    }
+
+    // Состояние задачи: пишет поток задачи, читают запросы статуса
+    private static final class AssignmentJob {
+        private final String id;
+        private final Long testId;
+        private final Long hrId;
+        private final int totalUsers;
+
+        private String status = "PENDING";
+        private int processedUsers;
+        private int assignedUsers;
+        private final Map<Long, String> failures = new LinkedHashMap<>();
+        private String error;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+
+        private AssignmentJob(String id, Long testId, Long hrId, int totalUsers) {
+            this.id = id;
+            this.testId = testId;
+            this.hrId = hrId;
+            this.totalUsers = totalUsers;
+        }
+
+        synchronized void started() {
+            status = "RUNNING";
+            startedAt = LocalDateTime.now();
+        }
+
+        synchronized void chunkDone(int processed, int assigned, Map<Long, String> chunkFailures) {
+            processedUsers += processed;
+            assignedUsers += assigned;
+            failures.putAll(chunkFailures);
+        }
+
+        synchronized void finished(String errorMessage) {
+            status = errorMessage == null ? "COMPLETED" : "FAILED";
+            error = errorMessage;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized boolean isFinishedBefore(LocalDateTime threshold) {
+            return finishedAt != null && finishedAt.isBefore(threshold);
+        }
+
+        synchronized AssignmentJobResponse toResponse() {
+            AssignmentJobResponse response = new AssignmentJobResponse();
+            response.setJobId(id);
+            response.setTestId(testId);
+            response.setStatus(status);
+            response.setTotalUsers(totalUsers);
+            response.setProcessedUsers(processedUsers);
+            response.setAssignedUsers(assignedUsers);
+            response.setFailures(new LinkedHashMap<>(failures));
+            response.setError(error);
+            response.setStartedAt(startedAt);
+            response.setFinishedAt(finishedAt);
+            return response;
+        }
+    }
+}
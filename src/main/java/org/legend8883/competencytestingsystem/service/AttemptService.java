@@ -1,22 +1,41 @@
 package org.legend8883.competencytestingsystem.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.blueprint.ChoiceScoringEngine;
+import org.legend8883.competencytestingsystem.blueprint.OptionBlueprint;
+import org.legend8883.competencytestingsystem.blueprint.QuestionBlueprint;
+import org.legend8883.competencytestingsystem.blueprint.TestBlueprint;
+import org.legend8883.competencytestingsystem.blueprint.TestBlueprintCache;
+import org.legend8883.competencytestingsystem.dto.request.AttemptSearchRequest;
 import org.legend8883.competencytestingsystem.dto.request.StartTestRequest;
 import org.legend8883.competencytestingsystem.dto.request.SubmitAnswerRequest;
+import org.legend8883.competencytestingsystem.dto.request.SubmitAnswersBatchRequest;
 import org.legend8883.competencytestingsystem.dto.response.*;
 import org.legend8883.competencytestingsystem.entity.*;
-import org.legend8883.competencytestingsystem.mapper.AnswerOptionMapper;
-import org.legend8883.competencytestingsystem.mapper.AttemptMapper;
 import org.legend8883.competencytestingsystem.repository.*;
+import org.legend8883.competencytestingsystem.scheduler.AutoSubmitScheduler;
+import org.legend8883.competencytestingsystem.session.AnswerDraft;
+import org.legend8883.competencytestingsystem.session.AttemptSessionStore;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AttemptService {
@@ -25,11 +44,19 @@ public class AttemptService {
     private final TestRepository testRepository;
     private final QuestionRepository questionRepository;
     private final AnswerRepository answerRepository;
-    private final AnswerOptionRepository answerOptionRepository;
     private final TestAssignmentRepository testAssignmentRepository;
+    private final TestBlueprintCache testBlueprintCache;
+    private final AutoSubmitScheduler autoSubmitScheduler;
+    private final AttemptSessionStore attemptSessionStore;
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    // Границы периода по умолчанию (LocalDateTime.MIN/MAX не помещаются в timestamp)
+    private static final LocalDateTime MIN_SEARCH_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_SEARCH_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     // Начать тестирование
     @Transactional
+    @Timed(value = "app.attempts", extraTags = {"operation", "start"})
     public TestProgressResponse startTest(StartTestRequest request, Long employeeId) {
         // 1. Проверить что тест назначен сотруднику
         User employee = new User();
@@ -75,15 +102,16 @@ public class AttemptService {
         attempt.setScore(0);
 
         Attempt savedAttempt = attemptRepository.save(attempt);
+        autoSubmitScheduler.register(savedAttempt.getId(), savedAttempt.getAutoSubmitAt());
 
         // 4. Создать пустые ответы для всех вопросов
-        List<Question> questions = questionRepository.findByTestWithOptions(test);
+        TestBlueprint blueprint = testBlueprintCache.get(test);
         List<Answer> answers = new ArrayList<>();
 
-        for (Question question : questions) {
+        for (QuestionBlueprint question : blueprint.getQuestions()) {
             Answer answer = new Answer();
             answer.setAttempt(savedAttempt);
-            answer.setQuestion(question);
+            answer.setQuestion(questionRepository.getReferenceById(question.getId()));
             answers.add(answer);
         }
 
@@ -94,12 +122,93 @@ public class AttemptService {
 
     // Отправить ответ на вопрос
     @Transactional
+    @Timed(value = "app.attempts", extraTags = {"operation", "submit"})
     public TestProgressResponse submitAnswer(Long attemptId, SubmitAnswerRequest request, Long employeeId) {
-        // 1. Найти попытку
+        Attempt attempt = getOwnAttemptInProgress(attemptId, employeeId);
+        TestBlueprint blueprint = testBlueprintCache.get(attempt.getTest().getId());
+
+        storeAnswer(attempt, blueprint, request);
+
+        return createProgressResponse(attempt);
+    }
+
+    // Отправить ответ и вернуть только дельту прогресса
+    @Transactional
+    @Timed(value = "app.attempts", extraTags = {"operation", "submit_delta"})
+    public AnswerDeltaResponse submitAnswerDelta(Long attemptId, SubmitAnswerRequest request, Long employeeId) {
+        Attempt attempt = getOwnAttemptInProgress(attemptId, employeeId);
+        TestBlueprint blueprint = testBlueprintCache.get(attempt.getTest().getId());
+
+        Answer answer = storeAnswer(attempt, blueprint, request);
+        QuestionBlueprint question = blueprint.findQuestion(request.getQuestionId()).orElseThrow();
+
+        AnswerDeltaResponse response = new AnswerDeltaResponse();
+        response.setAttemptId(attempt.getId());
+        response.setQuestionId(question.getId());
+        if (answer != null) {
+            response.setAnswered(hasAnswerContent(question, answer));
+            // Запрос на подсчет сам сбросит только что сохраненный ответ в БД
+            response.setAnsweredCount((int) answerRepository.countAnsweredByAttemptId(attempt.getId()));
+        } else {
+            // Ответ принят хранилищем сессии и в БД еще не записан
+            Set<Long> answeredQuestionIds = findAnsweredQuestionIds(attempt.getId());
+            response.setAnswered(answeredQuestionIds.contains(question.getId()));
+            response.setAnsweredCount(answeredQuestionIds.size());
+        }
+        response.setTotalQuestions(blueprint.size());
+        response.setTimeLeftMinutes(calculateTimeLeft(attempt));
+        return response;
+    }
+
+    // Карта прогресса: снимок теста + один запрос id отвеченных вопросов
+    @Timed(value = "app.attempts", extraTags = {"operation", "progress_map"})
+    public ProgressMapResponse getProgressMap(Long attemptId, Long employeeId) {
+        Attempt attempt = attemptRepository.findById(attemptId)
+                .orElseThrow(() -> new RuntimeException("Attempt not found"));
+
+        if (!attempt.getUser().getId().equals(employeeId)) {
+            throw new RuntimeException("This attempt belongs to another user");
+        }
+
+        TestBlueprint blueprint = testBlueprintCache.get(attempt.getTest().getId());
+        Set<Long> answeredQuestionIds = findAnsweredQuestionIds(attemptId);
+
+        List<QuestionProgressResponse> progress = new ArrayList<>(blueprint.size());
+        for (QuestionBlueprint question : blueprint.getQuestions()) {
+            QuestionProgressResponse progressItem = new QuestionProgressResponse();
+            progressItem.setQuestionId(question.getId());
+            progressItem.setOrderIndex(question.getOrderIndex());
+            progressItem.setAnswered(answeredQuestionIds.contains(question.getId()));
+            progressItem.setVisited(true);
+            progress.add(progressItem);
+        }
+
+        ProgressMapResponse response = new ProgressMapResponse();
+        response.setAttemptId(attempt.getId());
+        response.setTotalQuestions(blueprint.size());
+        response.setAnsweredCount(answeredQuestionIds.size());
+        response.setTimeLeftMinutes(calculateTimeLeft(attempt));
+        response.setQuestionProgress(progress);
+        return response;
+    }
+
+    // Id отвеченных вопросов с учетом еще не записанных черновиков сессии
+    private Set<Long> findAnsweredQuestionIds(Long attemptId) {
+        Set<Long> answeredQuestionIds = new HashSet<>(answerRepository.findAnsweredQuestionIds(attemptId));
+        attemptSessionStore.pending(attemptId).forEach((questionId, draft) -> {
+            if (draft.hasContent()) {
+                answeredQuestionIds.add(questionId);
+            } else {
+                answeredQuestionIds.remove(questionId);
+            }
+        });
+        return answeredQuestionIds;
+    }
+
+    private Attempt getOwnAttemptInProgress(Long attemptId, Long employeeId) {
         Attempt attempt = attemptRepository.findById(attemptId)
                 .orElseThrow(() -> new RuntimeException("Attempt not found"));
 
-        // 2. Проверить права
         if (!attempt.getUser().getId().equals(employeeId)) {
             throw new RuntimeException("This attempt belongs to another user");
         }
@@ -108,44 +217,125 @@ public class AttemptService {
             throw new RuntimeException("Attempt is not in progress");
         }
 
-        // 3. Найти вопрос
-        Question question = questionRepository.findById(request.getQuestionId())
+        // Автоотправка может прийти позже дедлайна (режим сессии), ответы после него не принимаются
+        if (attempt.getAutoSubmitAt() != null && LocalDateTime.now().isAfter(attempt.getAutoSubmitAt())) {
+            throw new RuntimeException("Time for this attempt is over");
+        }
+
+        return attempt;
+    }
+
+    /**
+     * Найти или создать ответ на вопрос и сохранить его.
+     * В режиме сессии ответ уходит в хранилище сессии, тогда возвращается null.
+     */
+    private Answer storeAnswer(Attempt attempt, TestBlueprint blueprint, SubmitAnswerRequest request) {
+        QuestionBlueprint question = blueprint.findQuestion(request.getQuestionId())
                 .orElseThrow(() -> new RuntimeException("Question not found"));
 
-        // 4. Найти или создать ответ
-        Answer answer = answerRepository.findByAttemptAndQuestion(attempt, question)
+        LocalDateTime now = LocalDateTime.now();
+        AnswerDraft draft = createDraft(question, request, now);
+        if (draft != null && attemptSessionStore.put(attempt.getId(), draft)) {
+            return null;
+        }
+
+        Question questionRef = questionRepository.getReferenceById(question.getId());
+        Answer answer = answerRepository.findByAttemptAndQuestion(attempt, questionRef)
                 .orElseGet(() -> {
                     Answer newAnswer = new Answer();
                     newAnswer.setAttempt(attempt);
-                    newAnswer.setQuestion(question);
+                    newAnswer.setQuestion(questionRef);
                     return newAnswer;
                 });
 
-        // 5. Сохранить ответ в зависимости от типа вопроса
-        if (question.getType() == QuestionType.SINGLE_CHOICE ||
-                question.getType() == QuestionType.MULTIPLE_CHOICE) {
+        // Сохранить ответ в зависимости от типа вопроса
+        if (draft != null) {
+            draft.applyTo(answer);
+        }
 
-            // Валидация выбранных вариантов
-            if (request.getSelectedOptionIds() != null) {
-                for (Long optionId : request.getSelectedOptionIds()) {
-                    AnswerOption option = answerOptionRepository.findById(optionId)
-                            .orElseThrow(() -> new RuntimeException("Option not found: " + optionId));
+        answer.setAnsweredAt(now);
+        return answerRepository.save(answer);
+    }
 
-                    if (!option.getQuestion().getId().equals(question.getId())) {
-                        throw new RuntimeException("Option does not belong to this question");
-                    }
-                }
+    // Пакетное сохранение ответов (автосохранение): одна транзакция, один saveAll
+    @Transactional
+    @Timed(value = "app.attempts", extraTags = {"operation", "submit_batch"})
+    public ProgressSummaryResponse submitAnswers(Long attemptId, SubmitAnswersBatchRequest request, Long employeeId) {
+        Attempt attempt = getOwnAttemptInProgress(attemptId, employeeId);
+
+        // Вопросы из снимка, все ответы попытки - одним запросом
+        TestBlueprint blueprint = testBlueprintCache.get(attempt.getTest().getId());
+        Map<Long, Answer> answers = loadAnswersByQuestion(attempt);
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, AnswerDraft> drafts = new LinkedHashMap<>();
 
-                answer.setSelectedOptionIds(request.getSelectedOptionIds());
+        for (SubmitAnswerRequest item : request.getAnswers()) {
+            QuestionBlueprint question = blueprint.findQuestion(item.getQuestionId())
+                    .orElseThrow(() -> new RuntimeException("Question not found: " + item.getQuestionId()));
 
-                // Автоматическая проверка для вопросов с выбором
-                if (question.getType() == QuestionType.SINGLE_CHOICE) {
-                    calculateScoreForSingleChoice(answer, question);
-                } else if (question.getType() == QuestionType.MULTIPLE_CHOICE) {
-                    calculateScoreForMultipleChoice(answer, question);
-                }
+            // Автосохранение часто присылает то же самое - такие ответы не перезаписываем
+            Answer answer = answers.get(question.getId());
+            if (answer != null && answer.getId() != null && isSameAnswer(answer, question, item)) {
+                continue;
             }
 
+            AnswerDraft draft = createDraft(question, item, now);
+            if (draft != null) {
+                drafts.put(question.getId(), draft);
+            }
+        }
+
+        // В режиме сессии черновики остаются в памяти до периодического сброса
+        if (!attemptSessionStore.putAll(attempt.getId(), drafts.values())) {
+            List<Answer> changed = new ArrayList<>(drafts.size());
+            for (AnswerDraft draft : drafts.values()) {
+                Answer answer = answers.computeIfAbsent(draft.questionId(), questionId -> {
+                    Answer newAnswer = new Answer();
+                    newAnswer.setAttempt(attempt);
+                    newAnswer.setQuestion(questionRepository.getReferenceById(questionId));
+                    return newAnswer;
+                });
+                draft.applyTo(answer);
+                changed.add(answer);
+            }
+
+            // Изменения уходят JDBC-пакетами (hibernate.jdbc.batch_size)
+            answerRepository.saveAll(changed);
+        }
+
+        ProgressSummaryResponse response = new ProgressSummaryResponse();
+        response.setAttemptId(attempt.getId());
+        response.setTotalQuestions(blueprint.size());
+        response.setAnsweredCount((int) blueprint.getQuestions().stream()
+                .filter(question -> drafts.containsKey(question.getId())
+                        ? drafts.get(question.getId()).hasContent()
+                        : hasAnswerContent(question, answers.get(question.getId())))
+                .count());
+        response.setSavedCount(drafts.size());
+        response.setTimeLeftMinutes(calculateTimeLeft(attempt));
+        return response;
+    }
+
+    private boolean isSameAnswer(Answer answer, QuestionBlueprint question, SubmitAnswerRequest request) {
+        if (question.isChoiceQuestion()) {
+            return request.getSelectedOptionIds() == null ||
+                    request.getSelectedOptionIds().equals(answer.getSelectedOptionIds());
+        }
+        return Objects.equals(request.getOpenAnswerText(), answer.getOpenAnswerText());
+    }
+
+    // Проверенный ответ на вопрос; null, если запрос ничего не меняет
+    private AnswerDraft createDraft(QuestionBlueprint question, SubmitAnswerRequest request, LocalDateTime now) {
+        if (question.isChoiceQuestion()) {
+
+            if (request.getSelectedOptionIds() == null) {
+                return null;
+            }
+            // Валидация и автоматическая проверка на битовых масках, без обращений к БД
+            int score = ChoiceScoringEngine.score(question, request.getSelectedOptionIds());
+            return AnswerDraft.choice(question.getId(), request.getSelectedOptionIds(), score, now);
+
         } else if (question.getType() == QuestionType.OPEN_ANSWER) {
             // Для открытых вопросов
             if (request.getOpenAnswerText() != null &&
@@ -153,19 +343,14 @@ public class AttemptService {
                 throw new RuntimeException("Answer is too long (max 5000 characters)");
             }
 
-            answer.setOpenAnswerText(request.getOpenAnswerText());
-            // Открытые вопросы проверяются HR вручную
-            answer.setAutoScore(0);
+            return AnswerDraft.open(question.getId(), request.getOpenAnswerText(), now);
         }
-
-        answer.setAnsweredAt(LocalDateTime.now());
-        answerRepository.save(answer);
-
-        return createProgressResponse(attempt);
+        return null;
     }
 
     // Завершить тест
     @Transactional
+    @Timed(value = "app.attempts", extraTags = {"operation", "complete"})
     public TestProgressResponse completeTest(Long attemptId, Long employeeId) {
         Attempt attempt = attemptRepository.findById(attemptId)
                 .orElseThrow(() -> new RuntimeException("Attempt not found"));
@@ -178,12 +363,15 @@ public class AttemptService {
             throw new RuntimeException("Attempt is not in progress");
         }
 
+        // Несброшенные ответы сессии должны попасть в БД до подсчета баллов
+        attemptSessionStore.flushAttempts(List.of(attempt.getId()));
+
         // Рассчитать итоговый балл
         calculateFinalScore(attempt);
 
         // ВАЖНОЕ ИСПРАВЛЕНИЕ:
         // Проверяем, есть ли открытые вопросы в тесте (не в ответах!)
-        boolean hasOpenQuestionsInTest = hasOpenQuestionsInTest(attempt.getTest());
+        boolean hasOpenQuestionsInTest = testBlueprintCache.get(attempt.getTest().getId()).hasOpenQuestions();
 
         if (hasOpenQuestionsInTest) {
             // Если в тесте ЕСТЬ открытые вопросы → SUBMITTED (отправлен на проверку)
@@ -196,19 +384,11 @@ public class AttemptService {
 
         attempt.setCompletedAt(LocalDateTime.now());
         Attempt savedAttempt = attemptRepository.save(attempt);
+        autoSubmitScheduler.cancel(savedAttempt.getId());
 
         return createProgressResponse(savedAttempt);
     }
 
-    private boolean hasOpenQuestionsInTest(Test test) {
-        if (test == null || test.getQuestions() == null) {
-            return false;
-        }
-
-        return test.getQuestions().stream()
-                .anyMatch(q -> q.getType() == QuestionType.OPEN_ANSWER);
-    }
-
     // Вспомогательный метод для проверки прохождения теста
     private boolean isAttemptPassed(Attempt attempt) {
         if (attempt.getScore() == null || attempt.getTest() == null ||
@@ -235,12 +415,49 @@ public class AttemptService {
         attemptRepository.save(attempt);
     }
 
+    // Страница попыток по тестам HR: фильтры и пагинация выполняются в SQL
+    public CursorPageResponse<AttemptResponse> searchHrAttempts(Long hrId, AttemptSearchRequest request,
+                                                                Set<AttemptStatus> allowedStatuses) {
+        Set<AttemptStatus> statuses = EnumSet.copyOf(allowedStatuses);
+        if (request.getStatuses() != null && !request.getStatuses().isEmpty()) {
+            statuses.retainAll(request.getStatuses());
+        }
+        if (statuses.isEmpty()) {
+            return new CursorPageResponse<>(List.of(), null, false);
+        }
+
+        int size = request.getSize() != null ? request.getSize() : DEFAULT_PAGE_SIZE;
+        // Берем на одну строку больше, чтобы узнать, есть ли следующая страница
+        List<AttemptResponse> rows = attemptRepository.findHrAttemptPage(
+                hrId,
+                statuses,
+                request.getTestId(),
+                request.getFrom() != null ? request.getFrom() : MIN_SEARCH_DATE,
+                request.getTo() != null ? request.getTo() : MAX_SEARCH_DATE,
+                request.getCursor() != null ? request.getCursor() : Long.MAX_VALUE,
+                PageRequest.of(0, size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<AttemptResponse> items = hasMore ? rows.subList(0, size) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new CursorPageResponse<>(items, nextCursor, hasMore);
+    }
+
+    // Количество попыток по статусам для тестов HR
+    public Map<String, Long> countHrAttemptsByStatus(Long hrId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (AttemptStatus status : AttemptStatus.values()) {
+            counts.put(status.name(), 0L);
+        }
+        for (Object[] row : attemptRepository.countByStatusForHr(hrId)) {
+            counts.put(((AttemptStatus) row[0]).name(), (Long) row[1]);
+        }
+        return counts;
+    }
+
     // Получить прогресс теста
+    @Timed(value = "app.attempts", extraTags = {"operation", "progress"})
     public TestProgressResponse getTestProgress(Long attemptId, Long employeeId) {
-        System.out.println("=== getTestProgress called ===");
-        System.out.println("Attempt ID: " + attemptId);
-        System.out.println("Employee ID: " + employeeId);
-
         Attempt attempt = attemptRepository.findById(attemptId)
                 .orElseThrow(() -> new RuntimeException("Attempt not found"));
 
@@ -248,192 +465,100 @@ public class AttemptService {
             throw new RuntimeException("This attempt belongs to another user");
         }
 
-        System.out.println("Attempt found. Status: " + attempt.getStatus());
-
-        TestProgressResponse response = createProgressResponse(attempt);
-
-        System.out.println("Response created. CurrentQuestion is null? " +
-                (response.getCurrentQuestion() == null));
-        System.out.println("=== getTestProgress end ===");
-
-        return response;
+        return createProgressResponse(attempt);
     }
 
     // ВСПОМОГАТЕЛЬНЫЕ МЕТОДЫ
 
     private TestProgressResponse createProgressResponse(Attempt attempt) {
-        TestProgressResponse response = new TestProgressResponse();
+        // Вопросы берем из снимка теста, ответы - одним запросом на попытку
+        TestBlueprint blueprint = testBlueprintCache.get(attempt.getTest().getId());
+        Map<Long, Answer> answers = loadAnswersByQuestion(attempt);
 
-        try {
-            System.out.println("=== DEBUG createProgressResponse ===");
-            System.out.println("Attempt ID: " + attempt.getId());
-            System.out.println("Test ID: " + attempt.getTest().getId());
-
-            // Базовые поля
-            response.setAttemptId(attempt.getId());
-            response.setTestId(attempt.getTest().getId());
-            response.setTestTitle(attempt.getTest().getTitle());
-            response.setStartedAt(attempt.getStartedAt());
-            response.setAutoSubmitAt(attempt.getAutoSubmitAt());
-            response.setTimeLeftMinutes(calculateTimeLeft(attempt));
-
-            // Получаем вопросы теста
-            List<Question> questions = questionRepository.findByTestWithOptions(attempt.getTest());
-            System.out.println("Questions loaded: " + questions.size());
-
-            if (questions.isEmpty()) {
-                System.out.println("WARNING: No questions found for test!");
-            }
+        TestProgressResponse response = createBaseProgressResponse(attempt, blueprint);
+        response.setQuestionProgress(createQuestionProgress(blueprint, answers));
 
-            response.setTotalQuestions(questions.size());
-
-            // ВАЖНО: Загружаем ответы один раз для всей попытки
-            List<Answer> answers = answerRepository.findByAttemptWithQuestions(attempt);
-            System.out.println("Answers loaded: " + answers.size());
-
-            // Создаем прогресс вопросов
-            List<QuestionProgressResponse> questionProgress = createQuestionProgress(questions, answers);
-            response.setQuestionProgress(questionProgress);
-
-            // Находим текущий вопрос
-            if (!questions.isEmpty()) {
-                // НАХОДИМ ТЕКУЩИЙ ВОПРОС НА ОСНОВЕ ОТВЕТОВ
-                int currentIndex = findCurrentQuestionIndex(questions, answers);
-                Question question = questions.get(currentIndex);
-
-                response.setCurrentQuestionIndex(currentIndex);
-
-                // ПЕРЕДАЕМ ТРИ АРГУМЕНТА: question, attempt И answers
-                QuestionWithAnswerResponse questionResponse = createSimpleQuestionResponse(question, attempt, answers);
-                response.setCurrentQuestion(questionResponse);
-
-                System.out.println("Current question: ID=" + question.getId() +
-                        ", Index=" + currentIndex +
-                        ", Type=" + question.getType());
-            } else {
-                response.setCurrentQuestionIndex(0);
-                System.out.println("WARNING: No questions available!");
-            }
+        // Находим текущий вопрос
+        if (!blueprint.isEmpty()) {
+            // НАХОДИМ ТЕКУЩИЙ ВОПРОС НА ОСНОВЕ ОТВЕТОВ
+            int currentIndex = findCurrentQuestionIndex(blueprint, answers);
+            QuestionBlueprint question = blueprint.getQuestions().get(currentIndex);
 
-            System.out.println("CurrentQuestion is null? " + (response.getCurrentQuestion() == null));
-            System.out.println("=== END DEBUG ===");
+            response.setCurrentQuestionIndex(currentIndex);
+            response.setCurrentQuestion(createQuestionWithAnswerResponse(question, answers.get(question.getId())));
 
-        } catch (Exception e) {
-            System.err.println("ERROR in createProgressResponse: " + e.getMessage());
-            e.printStackTrace();
+            log.debug("Progress of attempt {}: status={}, questions={}, answers={}, current={}",
+                    attempt.getId(), attempt.getStatus(), blueprint.size(), answers.size(), question.getId());
+        } else {
+            response.setCurrentQuestionIndex(0);
+            log.warn("Test {} of attempt {} has no questions", attempt.getTest().getId(), attempt.getId());
         }
 
-        // Запасной вариант: если currentQuestion все еще null
-        if (response.getCurrentQuestion() == null && response.getTotalQuestions() > 0) {
-            try {
-                List<Question> questions = questionRepository.findByTestWithOptions(attempt.getTest());
-                List<Answer> answers = answerRepository.findByAttemptWithQuestions(attempt);
-
-                if (!questions.isEmpty()) {
-                    int currentIndex = findCurrentQuestionIndex(questions, answers);
-                    Question question = questions.get(currentIndex);
-                    response.setCurrentQuestionIndex(currentIndex);
+        return response;
+    }
 
-                    QuestionWithAnswerResponse questionResponse = createSimpleQuestionResponse(question, attempt, answers);
-                    response.setCurrentQuestion(questionResponse);
+    private TestProgressResponse createBaseProgressResponse(Attempt attempt, TestBlueprint blueprint) {
+        TestProgressResponse response = new TestProgressResponse();
+        response.setAttemptId(attempt.getId());
+        response.setTestId(blueprint.getTestId());
+        response.setTestTitle(blueprint.getTitle());
+        response.setStartedAt(attempt.getStartedAt());
+        response.setAutoSubmitAt(attempt.getAutoSubmitAt());
+        response.setTimeLeftMinutes(calculateTimeLeft(attempt));
+        response.setTotalQuestions(blueprint.size());
+        return response;
+    }
 
-                    System.out.println("FORCE SET currentQuestion to index: " + currentIndex);
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to force set currentQuestion: " + e.getMessage());
+    // Ответы попытки, сгруппированные по id вопроса, поверх них - черновики сессии
+    private Map<Long, Answer> loadAnswersByQuestion(Attempt attempt) {
+        Map<Long, Answer> answers = new HashMap<>();
+        for (Answer answer : answerRepository.findByAttempt(attempt)) {
+            if (answer.getQuestion() != null) {
+                answers.putIfAbsent(answer.getQuestion().getId(), answer);
             }
         }
 
-        return response;
+        // Черновик накладывается на копию, чтобы не менять управляемую сущность
+        attemptSessionStore.pending(attempt.getId()).forEach((questionId, draft) -> {
+            Answer stored = answers.get(questionId);
+            Answer answer = new Answer();
+            answer.setAttempt(attempt);
+            answer.setQuestion(questionRepository.getReferenceById(questionId));
+            if (stored != null) {
+                answer.setId(stored.getId());
+                answer.setOpenAnswerText(stored.getOpenAnswerText());
+                answer.setSelectedOptionIds(stored.getSelectedOptionIds());
+                answer.setAssignedScore(stored.getAssignedScore());
+            }
+            draft.applyTo(answer);
+            answers.put(questionId, answer);
+        });
+        return answers;
     }
 
-    private QuestionWithAnswerResponse createSimpleQuestionResponse(
-            Question question, Attempt attempt, List<Answer> answers) {
-
-        System.out.println("=== DEBUG createSimpleQuestionResponse ===");
-        System.out.println("Question ID: " + question.getId());
-        System.out.println("Question Type: " + question.getType());
-        System.out.println("Question Text: " + (question.getText() != null ? question.getText().substring(0, Math.min(50, question.getText().length())) : "null"));
-
-        // Создаем базовый DTO
+    private QuestionWithAnswerResponse createQuestionWithAnswerResponse(QuestionBlueprint question, Answer answer) {
         QuestionWithAnswerResponse response = new QuestionWithAnswerResponse();
         response.setId(question.getId());
         response.setText(question.getText());
         response.setType(question.getType().name());
         response.setOrderIndex(question.getOrderIndex());
 
-        // 1. ОБРАБОТКА ВАРИАНТОВ ОТВЕТОВ (только для CHOICE вопросов)
-        if (question.getType() == QuestionType.SINGLE_CHOICE ||
-                question.getType() == QuestionType.MULTIPLE_CHOICE) {
-
-            System.out.println("Processing options for CHOICE question");
-
-            if (question.getOptions() != null && !question.getOptions().isEmpty()) {
-                List<AnswerOptionResponse> options = new ArrayList<>();
-
-                for (AnswerOption option : question.getOptions()) {
-                    AnswerOptionResponse optionResponse = new AnswerOptionResponse();
-                    optionResponse.setId(option.getId());
-                    optionResponse.setText(option.getText());
-                    optionResponse.setOrderIndex(option.getOrderIndex());
-                    optionResponse.setIsCorrect(false); // НЕ показываем правильность пользователю
-
-                    options.add(optionResponse);
-                    System.out.println("Added option: ID=" + option.getId() +
-                            ", Text length=" + (option.getText() != null ? option.getText().length() : 0));
-                }
-
-                response.setOptions(options);
-                System.out.println("Total options in DTO: " + options.size());
-            } else {
-                System.out.println("WARNING: CHOICE question has no options!");
-                response.setOptions(new ArrayList<>());
-            }
-        } else if (question.getType() == QuestionType.OPEN_ANSWER) {
-            // Для открытых вопросов оставляем пустой список или null
-            response.setOptions(null);
-            System.out.println("OPEN_ANSWER question - no options needed");
+        // Варианты ответов только для CHOICE вопросов
+        if (question.isChoiceQuestion()) {
+            response.setOptions(question.getOptions().stream()
+                    .map(this::mapToAnswerOptionResponse)
+                    .collect(Collectors.toList()));
         }
 
-        // 2. ПОЛУЧЕНИЕ СОХРАНЕННОГО ОТВЕТА (если есть)
-        // Ищем ответ для этого вопроса в текущей попытке
-        Optional<Answer> existingAnswer = answers.stream()
-                .filter(a -> a.getQuestion() != null &&
-                        a.getQuestion().getId().equals(question.getId()))
-                .findFirst();
-
-        System.out.println("Existing answer found: " + existingAnswer.isPresent());
-
-        if (existingAnswer.isPresent()) {
-            Answer answer = existingAnswer.get();
-
+        // Сохраненный ответ (если есть)
+        if (answer != null) {
             if (question.getType() == QuestionType.OPEN_ANSWER) {
-                // Для открытых вопросов
-                String openAnswer = answer.getOpenAnswerText();
-                response.setPreviousAnswer(openAnswer);
-                System.out.println("Open answer restored: " +
-                        (openAnswer != null ? openAnswer.substring(0, Math.min(50, openAnswer.length())) + "..." : "null"));
-
-            } else if (question.getType() == QuestionType.SINGLE_CHOICE ||
-                    question.getType() == QuestionType.MULTIPLE_CHOICE) {
-                // Для вопросов с выбором
-                List<Long> selectedOptionIds = answer.getSelectedOptionIds();
-                response.setPreviousSelectedOptions(selectedOptionIds);
-
-                System.out.println("Selected options restored: " +
-                        (selectedOptionIds != null ? selectedOptionIds.toString() : "null"));
-
-                // Также обновляем состояние чекбоксов/радиокнопок во фронтенде
-                // (это делается через установку атрибута checked)
+                response.setPreviousAnswer(answer.getOpenAnswerText());
+            } else {
+                response.setPreviousSelectedOptions(answer.getSelectedOptionIds());
             }
-        } else {
-            // Нет сохраненного ответа
-            System.out.println("No saved answer for this question");
-            response.setPreviousAnswer(null);
-            response.setPreviousSelectedOptions(null);
         }
 
-        System.out.println("=== END DEBUG createSimpleQuestionResponse ===");
         return response;
     }
 
@@ -450,46 +575,6 @@ public class AttemptService {
         return (int) java.time.Duration.between(now, attempt.getAutoSubmitAt()).toMinutes();
     }
 
-    private void calculateScoreForSingleChoice(Answer answer, Question question) {
-        if (answer.getSelectedOptionIds().size() != 1) {
-            answer.setAutoScore(0);
-            return;
-        }
-
-        Long selectedId = answer.getSelectedOptionIds().get(0);
-        AnswerOption selectedOption = answerOptionRepository.findById(selectedId)
-                .orElseThrow();
-
-        answer.setAutoScore(selectedOption.getIsCorrect() ? question.getMaxScore() : 0);
-    }
-
-    private void calculateScoreForMultipleChoice(Answer answer, Question question) {
-        List<AnswerOption> correctOptions = answerOptionRepository
-                .findByQuestionAndIsCorrectTrue(question);
-
-        List<Long> correctOptionIds = correctOptions.stream()
-                .map(AnswerOption::getId)
-                .toList();
-
-        long correctSelected = answer.getSelectedOptionIds().stream()
-                .filter(correctOptionIds::contains)
-                .count();
-
-        long incorrectSelected = answer.getSelectedOptionIds().stream()
-                .filter(id -> !correctOptionIds.contains(id))
-                .count();
-
-        // Формула: (правильные - неправильные) / всего правильных * maxScore
-        if (correctOptions.isEmpty()) {
-            answer.setAutoScore(0);
-        } else {
-            double score = Math.max(0, (correctSelected - incorrectSelected))
-                    / (double) correctOptions.size()
-                    * question.getMaxScore();
-            answer.setAutoScore((int) Math.round(score));
-        }
-    }
-
     private void calculateFinalScore(Attempt attempt) {
         List<Answer> answers = answerRepository.findByAttempt(attempt);
 
@@ -505,37 +590,19 @@ public class AttemptService {
         attempt.setScore(totalScore);
     }
 
-    private boolean hasOpenQuestions(Attempt attempt) {
-        List<Answer> answers = answerRepository.findByAttempt(attempt);
-        return answers.stream()
-                .anyMatch(answer -> {
-                    Question question = answer.getQuestion();
-                    return question.getType() == QuestionType.OPEN_ANSWER &&
-                            answer.getAssignedScore() == null;
-                });
-    }
-
     private List<QuestionProgressResponse> createQuestionProgress(
-            List<Question> questions, List<Answer> answers) {
-
-        List<QuestionProgressResponse> progress = new ArrayList<>();
+            TestBlueprint blueprint, Map<Long, Answer> answers) {
 
-        if (questions == null || questions.isEmpty()) {
-            return progress; // Пустой список, а не null
-        }
+        List<QuestionProgressResponse> progress = new ArrayList<>(blueprint.size());
 
-        for (Question question : questions) {
+        for (QuestionBlueprint question : blueprint.getQuestions()) {
             QuestionProgressResponse progressItem = new QuestionProgressResponse();
             progressItem.setQuestionId(question.getId());
             progressItem.setOrderIndex(question.getOrderIndex());
 
-            // Проверяем, отвечен ли вопрос
-            boolean answered = answers.stream()
-                    .anyMatch(answer ->
-                            answer.getQuestion().getId().equals(question.getId()) &&
-                                    answer.getAnsweredAt() != null);
-
-            progressItem.setAnswered(answered);
+            // Отвеченность - по содержимому, как в дельте и карте прогресса: answeredAt
+            // проставлен и у пустых строк, которые создает startTest
+            progressItem.setAnswered(hasAnswerContent(question, answers.get(question.getId())));
             progressItem.setVisited(true);
 
             progress.add(progressItem);
@@ -544,70 +611,36 @@ public class AttemptService {
         return progress;
     }
 
-    private Optional<Question> findCurrentQuestion(List<Question> questions, List<Answer> answers) {
-        // Находим первый вопрос без ответа
-        return questions.stream()
-                .filter(question -> {
-                    boolean hasAnswer = answers.stream()
-                            .anyMatch(answer ->
-                                    answer.getQuestion().getId().equals(question.getId()) &&
-                                            answer.getAnsweredAt() != null);
-                    return !hasAnswer; // Возвращаем вопросы без ответов
-                })
-                .findFirst();
-    }
-
-    private int findCurrentQuestionIndex(List<Question> questions, List<Answer> answers) {
-        if (questions == null || questions.isEmpty()) {
-            return 0;
-        }
-
-        System.out.println("=== DEBUG findCurrentQuestionIndex ===");
-        System.out.println("Questions count: " + questions.size());
-
+    private int findCurrentQuestionIndex(TestBlueprint blueprint, Map<Long, Answer> answers) {
         // ЛОГИКА: Находим первый вопрос, на который еще не отвечали
+        List<QuestionBlueprint> questions = blueprint.getQuestions();
         for (int i = 0; i < questions.size(); i++) {
-            Question question = questions.get(i);
-
-            // Ищем ответ для этого вопроса
-            boolean hasAnsweredAnswer = false;
-            for (Answer answer : answers) {
-                if (answer.getQuestion() != null &&
-                        answer.getQuestion().getId().equals(question.getId())) {
-
-                    // Проверяем, есть ли хоть какой-то ответ
-                    boolean hasAnswerContent = false;
-                    if (question.getType() == QuestionType.OPEN_ANSWER) {
-                        hasAnswerContent = answer.getOpenAnswerText() != null &&
-                                !answer.getOpenAnswerText().trim().isEmpty();
-                    } else {
-                        hasAnswerContent = answer.getSelectedOptionIds() != null &&
-                                !answer.getSelectedOptionIds().isEmpty();
-                    }
-
-                    if (hasAnswerContent) {
-                        hasAnsweredAnswer = true;
-                        break;
-                    }
-                }
-            }
-
-            System.out.println("Question " + (i + 1) + " (ID=" + question.getId() +
-                    "): hasAnsweredAnswer=" + hasAnsweredAnswer);
+            QuestionBlueprint question = questions.get(i);
 
-            if (!hasAnsweredAnswer) {
-                System.out.println("First unanswered question found at index: " + i);
-                System.out.println("=== END DEBUG ===");
+            if (!hasAnswerContent(question, answers.get(question.getId()))) {
                 return i; // Возвращаем первый неотвеченный вопрос
             }
         }
 
         // Если все вопросы отвечены, возвращаем первый
-        System.out.println("All questions answered, returning first question");
-        System.out.println("=== END DEBUG ===");
         return 0;
     }
 
+    // Есть ли в ответе хоть какое-то содержимое
+    private boolean hasAnswerContent(QuestionBlueprint question, Answer answer) {
+        if (answer == null) {
+            return false;
+        }
+
+        if (question.getType() == QuestionType.OPEN_ANSWER) {
+            return answer.getOpenAnswerText() != null &&
+                    !answer.getOpenAnswerText().trim().isEmpty();
+        }
+
+        return answer.getSelectedOptionIds() != null &&
+                !answer.getSelectedOptionIds().isEmpty();
+    }
+
     // Перейти к конкретному вопросу
     @Transactional
     public TestProgressResponse goToQuestion(Long attemptId, Long questionId, Long employeeId) {
@@ -622,129 +655,24 @@ public class AttemptService {
             throw new RuntimeException("Attempt is not in progress");
         }
 
-        // Находим вопрос
-        Question question = questionRepository.findByIdWithOptions(questionId)
-                .orElseThrow(() -> new RuntimeException("Question not found"));
+        // Находим индекс вопроса в снимке теста
+        TestBlueprint blueprint = testBlueprintCache.get(attempt.getTest().getId());
+        int questionIndex = blueprint.indexOf(questionId);
 
-        if (!question.getTest().getId().equals(attempt.getTest().getId())) {
+        if (questionIndex == -1) {
             throw new RuntimeException("Question does not belong to this test");
         }
 
-        // Находим все вопросы теста
-        List<Question> allQuestions = questionRepository.findByTestWithOptions(attempt.getTest());
-
-        // Находим индекс текущего вопроса
-        int questionIndex = -1;
-        for (int i = 0; i < allQuestions.size(); i++) {
-            if (allQuestions.get(i).getId().equals(questionId)) {
-                questionIndex = i;
-                break;
-            }
-        }
-
-        if (questionIndex == -1) {
-            throw new RuntimeException("Question not found in this test");
-        }
+        QuestionBlueprint question = blueprint.getQuestions().get(questionIndex);
 
         // Загружаем ответы
-        List<Answer> answers = answerRepository.findByAttemptWithQuestions(attempt);
+        Map<Long, Answer> answers = loadAnswersByQuestion(attempt);
 
         // Создаем ответ
-        TestProgressResponse response = new TestProgressResponse();
-        response.setAttemptId(attemptId);
-        response.setTestId(attempt.getTest().getId());
-        response.setTestTitle(attempt.getTest().getTitle());
-        response.setStartedAt(attempt.getStartedAt());
-        response.setAutoSubmitAt(attempt.getAutoSubmitAt());
-        response.setTimeLeftMinutes(calculateTimeLeft(attempt));
-        response.setCurrentQuestionIndex(questionIndex);
-        response.setTotalQuestions(allQuestions.size());
-
-        // Создаем DTO вопроса
-        QuestionWithAnswerResponse questionResponse = createQuestionWithAnswerResponse(question, answers);
-        response.setCurrentQuestion(questionResponse);
-
-        // Создаем прогресс вопросов
-        List<QuestionProgressResponse> questionProgress = createQuestionProgress(allQuestions, answers);
-        response.setQuestionProgress(questionProgress);
-
-        return response;
-    }
-
-    private QuestionWithAnswerResponse createQuestionWithAnswerResponse(Question question, List<Answer> answers) {
-        QuestionWithAnswerResponse response = new QuestionWithAnswerResponse();
-        response.setId(question.getId());
-        response.setText(question.getText());
-        response.setType(question.getType().name());
-        response.setOrderIndex(question.getOrderIndex());
-
-        // Добавляем варианты ответов для CHOICE вопросов
-        if (question.getType() == QuestionType.SINGLE_CHOICE ||
-                question.getType() == QuestionType.MULTIPLE_CHOICE) {
-
-            if (question.getOptions() != null) {
-                List<AnswerOptionResponse> options = question.getOptions().stream()
-                        .map(option -> {
-                            AnswerOptionResponse optionResponse = new AnswerOptionResponse();
-                            optionResponse.setId(option.getId());
-                            optionResponse.setText(option.getText());
-                            optionResponse.setOrderIndex(option.getOrderIndex());
-                            optionResponse.setIsCorrect(false); // Не показываем пользователю
-                            return optionResponse;
-                        })
-                        .collect(Collectors.toList());
-                response.setOptions(options);
-            }
-        }
-
-        // Ищем сохраненный ответ
-        Optional<Answer> existingAnswer = answers.stream()
-                .filter(a -> a.getQuestion() != null &&
-                        a.getQuestion().getId().equals(question.getId()))
-                .findFirst();
-
-        if (existingAnswer.isPresent()) {
-            Answer answer = existingAnswer.get();
-
-            if (question.getType() == QuestionType.OPEN_ANSWER) {
-                response.setPreviousAnswer(answer.getOpenAnswerText());
-            } else {
-                response.setPreviousSelectedOptions(answer.getSelectedOptionIds());
-            }
-        }
-
-        return response;
-    }
-
-    private TestProgressResponse createProgressResponseWithSpecificQuestion(
-            Attempt attempt, List<Question> questions, int questionIndex) {
-
-        TestProgressResponse response = new TestProgressResponse();
-
-        // Базовые поля
-        response.setAttemptId(attempt.getId());
-        response.setTestId(attempt.getTest().getId());
-        response.setTestTitle(attempt.getTest().getTitle());
-        response.setStartedAt(attempt.getStartedAt());
-        response.setAutoSubmitAt(attempt.getAutoSubmitAt());
-        response.setTimeLeftMinutes(calculateTimeLeft(attempt));
-
-        response.setTotalQuestions(questions.size());
+        TestProgressResponse response = createBaseProgressResponse(attempt, blueprint);
         response.setCurrentQuestionIndex(questionIndex);
-
-        // Загружаем ответы
-        List<Answer> answers = answerRepository.findByAttemptWithQuestions(attempt);
-
-        // Создаем прогресс вопросов
-        List<QuestionProgressResponse> questionProgress = createQuestionProgress(questions, answers);
-        response.setQuestionProgress(questionProgress);
-
-        // Устанавливаем текущий вопрос
-        if (!questions.isEmpty() && questionIndex < questions.size()) {
-            Question question = questions.get(questionIndex);
-            QuestionWithAnswerResponse questionResponse = createSimpleQuestionResponse(question, attempt, answers);
-            response.setCurrentQuestion(questionResponse);
-        }
+        response.setCurrentQuestion(createQuestionWithAnswerResponse(question, answers.get(questionId)));
+        response.setQuestionProgress(createQuestionProgress(blueprint, answers));
 
         return response;
     }
@@ -758,36 +686,31 @@ public class AttemptService {
             throw new RuntimeException("This attempt belongs to another user");
         }
 
-        List<Question> questions = questionRepository.findByTestWithOptions(attempt.getTest());
+        TestBlueprint blueprint = testBlueprintCache.get(attempt.getTest().getId());
 
-        return questions.stream()
+        return blueprint.getQuestions().stream()
                 .map(this::mapToQuestionResponse)
                 .collect(Collectors.toList());
     }
 
-    private QuestionResponse mapToQuestionResponse(Question question) {
+    private QuestionResponse mapToQuestionResponse(QuestionBlueprint question) {
         QuestionResponse response = new QuestionResponse();
         response.setId(question.getId());
         response.setText(question.getText());
         response.setType(question.getType().name());
         response.setMaxScore(question.getMaxScore());
         response.setOrderIndex(question.getOrderIndex());
-
-        if (question.getOptions() != null) {
-            List<AnswerOptionResponse> options = question.getOptions().stream()
-                    .map(this::mapToAnswerOptionResponse)
-                    .collect(Collectors.toList());
-            response.setOptions(options);
-        }
-
+        response.setOptions(question.getOptions().stream()
+                .map(this::mapToAnswerOptionResponse)
+                .collect(Collectors.toList()));
         return response;
     }
 
-    private AnswerOptionResponse mapToAnswerOptionResponse(AnswerOption option) {
+    private AnswerOptionResponse mapToAnswerOptionResponse(OptionBlueprint option) {
         AnswerOptionResponse response = new AnswerOptionResponse();
-        response.setId(option.getId());
-        response.setText(option.getText());
-        response.setOrderIndex(option.getOrderIndex());
+        response.setId(option.id());
+        response.setText(option.text());
+        response.setOrderIndex(option.orderIndex());
         response.setIsCorrect(false); // НЕ показываем правильность пользователю
         return response;
     }
@@ -800,11 +723,11 @@ public class AttemptService {
             throw new RuntimeException("This attempt belongs to another user");
         }
 
-        List<Question> questions = questionRepository.findByTestWithOptions(attempt.getTest());
-        List<Answer> answers = answerRepository.findByAttemptWithQuestions(attempt);
+        TestBlueprint blueprint = testBlueprintCache.get(attempt.getTest().getId());
+        Map<Long, Answer> answers = loadAnswersByQuestion(attempt);
 
-        return questions.stream()
-                .map(question -> createQuestionWithAnswerResponse(question, answers))
+        return blueprint.getQuestions().stream()
+                .map(question -> createQuestionWithAnswerResponse(question, answers.get(question.getId())))
                 .collect(Collectors.toList());
     }
 
@@ -816,15 +739,12 @@ public class AttemptService {
             throw new RuntimeException("This attempt belongs to another user");
         }
 
-        Question question = questionRepository.findByIdWithOptions(questionId)
-                .orElseThrow(() -> new RuntimeException("Question not found"));
-
-        if (!question.getTest().getId().equals(attempt.getTest().getId())) {
-            throw new RuntimeException("Question does not belong to this test");
-        }
+        QuestionBlueprint question = testBlueprintCache.get(attempt.getTest().getId())
+                .findQuestion(questionId)
+                .orElseThrow(() -> new RuntimeException("Question does not belong to this test"));
 
-        List<Answer> answers = answerRepository.findByAttemptWithQuestions(attempt);
+        Map<Long, Answer> answers = loadAnswersByQuestion(attempt);
 
-        return createQuestionWithAnswerResponse(question, answers);
+        return createQuestionWithAnswerResponse(question, answers.get(questionId));
     }
 }
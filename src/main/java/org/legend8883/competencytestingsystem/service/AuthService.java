@@ -1,7 +1,7 @@
 package org.legend8883.competencytestingsystem.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.legend8883.competencytestingsystem.dto.request.CreateTestRequest;
 import org.legend8883.competencytestingsystem.dto.request.LoginRequest;
 import org.legend8883.competencytestingsystem.dto.request.RegisterRequest;
 import org.legend8883.competencytestingsystem.dto.response.AuthResponse;
@@ -10,7 +10,6 @@ import org.legend8883.competencytestingsystem.entity.User;
 import org.legend8883.competencytestingsystem.mapper.UserMapper;
 import org.legend8883.competencytestingsystem.repository.UserRepository;
 import org.legend8883.competencytestingsystem.security.JwtUtil;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -18,9 +17,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tools.jackson.databind.ObjectMapper;
-
-import java.io.InputStream;
 
 @Service
 @RequiredArgsConstructor
@@ -31,8 +27,7 @@ public class AuthService {
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
-    private final TestService testService;
-    private final ObjectMapper objectMapper;
+    private final DefaultTestService defaultTestService;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -61,6 +56,7 @@ public class AuthService {
         return createAuthResponse(savedUser, token);
     }
 
+    @Timed(value = "app.auth", extraTags = {"operation", "login"})
     public AuthResponse login(LoginRequest request) {
         // 1. Аутентификация
         Authentication authentication = authenticationManager.authenticate(
@@ -110,10 +106,12 @@ public class AuthService {
         User user = userMapper.toEntity(request);
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         user.setRole(Role.HR); // Вот отличие!
+        user.setDefaultTestPending(true);
 
         User savedUser = userRepository.save(user);
 
-        createDefaultTestForHr(savedUser);
+        // Стартовый тест копируется из шаблона уже после коммита регистрации
+        defaultTestService.scheduleFor(savedUser.getId());
 
         String token = jwtUtil.generateToken(
                 savedUser.getId(),
@@ -123,22 +121,4 @@ public class AuthService {
 
         return createAuthResponse(savedUser, token);
     }
-
-    private void createDefaultTestForHr(User hr) {
-        try {
-            InputStream is = new ClassPathResource(
-                    "tests/java_test_50_questions.json"
-            ).getInputStream();
-
-            CreateTestRequest testRequest =
-                    objectMapper.readValue(is, CreateTestRequest.class);
-
-            testService.createTest(testRequest, hr.getId());
-
-        } catch (Exception e) {
-            throw new RuntimeException(
-                    "Не удалось создать тест для HR", e
-            );
-        }
-    }
 }
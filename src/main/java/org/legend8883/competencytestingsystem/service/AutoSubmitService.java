@@ -0,0 +1,53 @@
+package org.legend8883.competencytestingsystem.service;
+
+import lombok.RequiredArgsConstructor;
+import org.legend8883.competencytestingsystem.config.AttemptSessionProperties;
+import org.legend8883.competencytestingsystem.repository.AttemptRepository;
+import org.legend8883.competencytestingsystem.session.AttemptSessionStore;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class AutoSubmitService {
+
+    private final AttemptRepository attemptRepository;
+    private final AttemptSessionStore attemptSessionStore;
+    private final AttemptSessionProperties attemptSessionProperties;
+
+    // Насколько позже дедлайна попытка завершается (режим сессии, см. AttemptSessionProperties)
+    public long graceMs() {
+        return attemptSessionProperties.autoSubmitGraceMs();
+    }
+
+    // Id просроченных попыток, которые еще в процессе
+    @Transactional(readOnly = true)
+    public List<Long> findExpiredAttemptIds(int limit) {
+        return attemptRepository.findAttemptIdsForAutoSubmit(dueBefore(LocalDateTime.now()), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Завершает пакет попыток одной транзакцией и одним UPDATE.
+     * Уже завершенные и еще не просроченные попытки пропускаются условием запроса,
+     * поэтому повторная обработка того же пакета безопасна.
+     */
+    @Transactional
+    public int autoSubmit(List<Long> attemptIds) {
+        if (attemptIds.isEmpty()) {
+            return 0;
+        }
+        // Балл считается в SQL, поэтому черновики сессии сначала записываются в БД.
+        // Здесь сбрасываются только черновики этого узла, остальные узлы успевают за время grace
+        attemptSessionStore.flushAttempts(attemptIds);
+        LocalDateTime now = LocalDateTime.now();
+        return attemptRepository.autoSubmit(attemptIds, dueBefore(now), now);
+    }
+
+    private LocalDateTime dueBefore(LocalDateTime now) {
+        return now.minusNanos(graceMs() * 1_000_000);
+    }
+}
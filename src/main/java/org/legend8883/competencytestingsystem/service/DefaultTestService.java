@@ -0,0 +1,85 @@
+package org.legend8883.competencytestingsystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.repository.UserRepository;
+import org.legend8883.competencytestingsystem.template.DefaultTestTemplate;
+import org.legend8883.competencytestingsystem.template.TestTemplateCloner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Выдача стартового теста новым HR.
+ * Регистрация только ставит флаг default_test_pending; копия шаблона создается
+ * после коммита регистрации (app.default-test.provision-after-commit) или
+ * при первом открытии списка тестов. Флаг снимается атомарно вместе с копией,
+ * поэтому тест создается ровно один раз.
+ */
+@Slf4j
+@Service
+public class DefaultTestService {
+
+    private final UserRepository userRepository;
+    private final DefaultTestTemplate defaultTestTemplate;
+    private final TestTemplateCloner testTemplateCloner;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean provisionAfterCommit;
+
+    public DefaultTestService(UserRepository userRepository,
+                              DefaultTestTemplate defaultTestTemplate,
+                              TestTemplateCloner testTemplateCloner,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.default-test.provision-after-commit:true}") boolean provisionAfterCommit) {
+        this.userRepository = userRepository;
+        this.defaultTestTemplate = defaultTestTemplate;
+        this.testTemplateCloner = testTemplateCloner;
+        // Своя транзакция: после коммита регистрации внешней уже нет
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.provisionAfterCommit = provisionAfterCommit;
+    }
+
+    // Вызывается в транзакции регистрации, флаг HR уже выставлен
+    public void scheduleFor(Long hrId) {
+        if (!provisionAfterCommit || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    provision(hrId);
+                } catch (RuntimeException e) {
+                    // Флаг остался, тест будет создан при первом открытии списка тестов
+                    log.warn("Default test provisioning failed for HR {}: {}", hrId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Для чтения списка тестов: пишущая транзакция открывается, только если флаг еще стоит.
+     */
+    public void provisionIfPending(Long hrId) {
+        if (userRepository.existsByIdAndDefaultTestPendingTrue(hrId)) {
+            provision(hrId);
+        }
+    }
+
+    /**
+     * Создает копию шаблона, если она еще не выдана. Пустой вызов - один UPDATE без строк.
+     */
+    public void provision(Long hrId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (userRepository.claimDefaultTest(hrId) == 0) {
+                return;
+            }
+            Long testId = testTemplateCloner.cloneFor(defaultTestTemplate.get(), hrId);
+            log.info("Default test {} created for HR {}", testId, hrId);
+        });
+    }
+}
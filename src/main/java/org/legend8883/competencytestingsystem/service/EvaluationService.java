@@ -1,5 +1,6 @@
 package org.legend8883.competencytestingsystem.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.legend8883.competencytestingsystem.dto.request.EvaluateAnswerRequest;
 import org.legend8883.competencytestingsystem.entity.*;
@@ -20,6 +21,7 @@ public class EvaluationService {
     private final UserRepository userRepository;
 
     // Получить открытые вопросы для проверки
+    @Timed(value = "app.evaluation", extraTags = {"operation", "open_answers"})
     public List<Answer> getOpenAnswersForEvaluation(Long hrId) {
         // Проверить что пользователь HR
         User hr = userRepository.findById(hrId)
@@ -34,6 +36,7 @@ public class EvaluationService {
 
     // Оценить открытый вопрос
     @Transactional
+    @Timed(value = "app.evaluation", extraTags = {"operation", "evaluate"})
     public Answer evaluateAnswer(Long answerId, EvaluateAnswerRequest request, Long hrId) {
         Answer answer = answerRepository.findByIdWithQuestion(answerId)
                 .orElseThrow(() -> new RuntimeException("Answer not found with question"));
@@ -64,30 +67,20 @@ public class EvaluationService {
     }
 
     // Получить попытки для проверки
+    @Timed(value = "app.evaluation", extraTags = {"operation", "attempts"})
     public List<Attempt> getAttemptsForEvaluation(Long hrId) {
         return attemptRepository.findByStatus(AttemptStatus.EVALUATING);
     }
 
     // Завершить проверку попытки
     @Transactional
+    @Timed(value = "app.evaluation", extraTags = {"operation", "complete"})
     public Attempt completeEvaluation(Long attemptId, Long hrId) {
         Attempt attempt = attemptRepository.findById(attemptId)
                 .orElseThrow(() -> new RuntimeException("Attempt not found"));
 
-        // Загружаем ответы для этой попытки
-        List<Answer> answers = answerRepository.findByAttempt(attempt);
-
-        // Проверить что все открытые вопросы оценены
-        boolean allEvaluated = answers.stream()
-                .filter(answer -> {
-                    // Нужно загрузить вопрос для каждого ответа
-                    Answer fullAnswer = answerRepository.findByIdWithQuestion(answer.getId())
-                            .orElse(answer);
-                    return fullAnswer.getQuestion().getType() == QuestionType.OPEN_ANSWER;
-                })
-                .allMatch(answer -> answer.getAssignedScore() != null);
-
-        if (!allEvaluated) {
+        // Проверить что все открытые вопросы оценены (один COUNT вместо запроса на каждый ответ)
+        if (answerRepository.countUnevaluatedOpenAnswers(attemptId) > 0) {
             throw new RuntimeException("Not all open answers have been evaluated");
         }
 
@@ -0,0 +1,47 @@
+package org.legend8883.competencytestingsystem.service;
+
+import lombok.RequiredArgsConstructor;
+import org.legend8883.competencytestingsystem.repository.SchedulerLeaseRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Аренды фоновых задач в БД. Пока аренда не истекла, задачу с этим именем
+ * выполняет только узел-владелец; аренда упавшего узла перехватывается по TTL.
+ */
+@Service
+@RequiredArgsConstructor
+public class SchedulerLeaseService {
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+
+    // Идентификатор узла: хост + случайный суффикс на случай нескольких экземпляров на хосте
+    private final String nodeId = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+    @Transactional
+    public boolean tryAcquire(String name, long ttlMs) {
+        LocalDateTime now = LocalDateTime.now();
+        return schedulerLeaseRepository.tryAcquire(name, nodeId, now.plusNanos(ttlMs * 1_000_000), now) > 0;
+    }
+
+    @Transactional
+    public void release(String name) {
+        schedulerLeaseRepository.release(name, nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
@@ -1,125 +1,162 @@
 package org.legend8883.competencytestingsystem.service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.annotation.Timed;
 import org.legend8883.competencytestingsystem.dto.request.AssignTestRequest;
 import org.legend8883.competencytestingsystem.entity.*;
 import org.legend8883.competencytestingsystem.repository.AttemptRepository;
 import org.legend8883.competencytestingsystem.repository.TestAssignmentRepository;
 import org.legend8883.competencytestingsystem.repository.TestRepository;
 import org.legend8883.competencytestingsystem.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 @Service
-@RequiredArgsConstructor
 public class TestAssignmentService {
 
     private final TestAssignmentRepository testAssignmentRepository;
     private final TestRepository testRepository;
     private final UserRepository userRepository;
     private final AttemptRepository attemptRepository;
+    private final int assignmentBatchSize;
+
+    public TestAssignmentService(TestAssignmentRepository testAssignmentRepository,
+                                 TestRepository testRepository,
+                                 UserRepository userRepository,
+                                 AttemptRepository attemptRepository,
+                                 @Value("${app.assignments.batch-size:500}") int assignmentBatchSize) {
+        this.testAssignmentRepository = testAssignmentRepository;
+        this.testRepository = testRepository;
+        this.userRepository = userRepository;
+        this.attemptRepository = attemptRepository;
+        this.assignmentBatchSize = assignmentBatchSize;
+    }
 
-    // Назначить тест сотрудникам (HR функция)
+    // Назначить тест сотрудникам (HR функция): все или никого, одной транзакцией
     @Transactional
+    @Timed(value = "app.assignments", extraTags = {"operation", "assign"})
     public void assignTestToUsers(Long testId, AssignTestRequest request, Long hrId) {
-        // 1. Найти тест
+        Test test = getOwnTest(testId, hrId);
+        User hr = userRepository.getReferenceById(hrId);
+
+        // Пользователи, назначения и попытки загружаются пачками через IN, а не по одному
+        for (List<Long> chunk : chunks(request.getUserIds())) {
+            assignChunk(test, hr, chunk, request.getDeadline(), null);
+        }
+    }
+
+    // Проверить, что тест существует и принадлежит HR (до запуска фонового назначения)
+    @Transactional(readOnly = true)
+    public void checkCanAssign(Long testId, Long hrId) {
+        getOwnTest(testId, hrId);
+    }
+
+    /**
+     * Назначить тест одной пачке сотрудников в отдельной транзакции (фоновое назначение).
+     * Ошибки по сотрудникам не прерывают пачку, а попадают в failures.
+     * Возвращает число назначенных.
+     */
+    @Transactional
+    public int assignChunk(Long testId, Long hrId, List<Long> userIds, LocalDateTime deadline,
+                           Map<Long, String> failures) {
+        return assignChunk(testRepository.getReferenceById(testId), userRepository.getReferenceById(hrId),
+                userIds, deadline, failures);
+    }
+
+    public List<List<Long>> chunks(List<Long> userIds) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(userIds));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += assignmentBatchSize) {
+            chunks.add(distinct.subList(from, Math.min(from + assignmentBatchSize, distinct.size())));
+        }
+        return chunks;
+    }
+
+    private Test getOwnTest(Long testId, Long hrId) {
         Test test = testRepository.findById(testId)
                 .orElseThrow(() -> new RuntimeException("Test not found"));
 
-        // 2. Найти HR
-        User hr = userRepository.findById(hrId)
-                .orElseThrow(() -> new RuntimeException("HR not found"));
-
-        // 3. Проверить что тест принадлежит этому HR
         if (!test.getCreatedBy().getId().equals(hrId)) {
             throw new RuntimeException("You can only assign your own tests");
         }
+        return test;
+    }
 
-        // 4. Назначить тест каждому сотруднику
-        for (Long userId : request.getUserIds()) {
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-
-            // Проверить что пользователь - сотрудник
-            if (user.getRole() != Role.EMPLOYEE) {
-                throw new RuntimeException("User " + user.getEmail() + " is not an employee");
+    // failures == null - первая ошибка прерывает назначение (и откатывает транзакцию)
+    private int assignChunk(Test test, User hr, List<Long> userIds, LocalDateTime deadline,
+                            Map<Long, String> failures) {
+        // Три запроса на пачку: сотрудники, их назначения этого теста, начатые попытки
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), user);
+        }
+        Map<Long, TestAssignment> assignments = new HashMap<>();
+        for (TestAssignment assignment : testAssignmentRepository.findByTestIdAndUserIds(test.getId(), userIds)) {
+            assignments.put(assignment.getUser().getId(), assignment);
+        }
+        Set<Long> startedUserIds = new HashSet<>(attemptRepository.findUserIdsWithAttempts(test.getId(), userIds));
+
+        List<TestAssignment> toSave = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            User user = users.get(userId);
+            String error = null;
+            if (user == null) {
+                error = "User not found with id: " + userId;
+            } else if (user.getRole() != Role.EMPLOYEE) {
+                error = "User " + user.getEmail() + " is not an employee";
+            } else if (assignments.containsKey(userId) && startedUserIds.contains(userId)) {
+                error = "Сотрудник " + user.getEmail() + " уже начал проходить этот тест";
             }
 
-            // ПРОВЕРКА: не назначен ли уже тест и не начал ли сотрудник его проходить
-            Optional<TestAssignment> existingAssignment = testAssignmentRepository
-                    .findByUserAndTest(user, test);
-
-            if (existingAssignment.isPresent()) {
-                // Проверяем, не начал ли уже сотрудник тест
-                Optional<Attempt> existingAttempt = attemptRepository
-                        .findByUserAndTest(user, test);
-
-                if (existingAttempt.isPresent()) {
-                    throw new RuntimeException("Сотрудник " + user.getEmail() +
-                            " уже начал проходить этот тест");
+            if (error != null) {
+                if (failures == null) {
+                    throw new RuntimeException(error);
                 }
-
-                // Если назначение существует, но тест не начат, обновляем его
-                TestAssignment assignment = existingAssignment.get();
-                assignment.setDeadline(request.getDeadline());
-                assignment.setIsActive(true);
-                testAssignmentRepository.save(assignment);
+                failures.put(userId, error);
                 continue;
             }
 
-            // Создать новое назначение
-            TestAssignment assignment = new TestAssignment();
-            assignment.setTest(test);
-            assignment.setUser(user);
-            assignment.setAssignedBy(hr);
-            assignment.setDeadline(request.getDeadline());
+            TestAssignment assignment = assignments.get(userId);
+            if (assignment == null) {
+                // Создать новое назначение
+                assignment = new TestAssignment();
+                assignment.setTest(test);
+                assignment.setUser(user);
+                assignment.setAssignedBy(hr);
+                assignment.setIsCompleted(false);
+            }
+            // Если назначение существует, но тест не начат, обновляем его
+            assignment.setDeadline(deadline);
             assignment.setIsActive(true);
-            assignment.setIsCompleted(false);
-
-            testAssignmentRepository.save(assignment);
+            toSave.add(assignment);
         }
+
+        // Вставки и обновления уходят JDBC-пакетами
+        testAssignmentRepository.saveAll(toSave);
+        return toSave.size();
     }
 
     // Получить доступные тесты для сотрудника
     public List<Test> getAvailableTestsForEmployee(Long employeeId) {
-        System.out.println("=== DEBUG: getAvailableTestsForEmployee ===");
-        System.out.println("Employee ID: " + employeeId);
-
-        User employee = userRepository.findById(employeeId)
-                .orElseThrow(() -> new RuntimeException("Employee not found"));
-        System.out.println("Employee found: " + employee.getEmail() + ", Role: " + employee.getRole());
-
-        LocalDateTime now = LocalDateTime.now();
-        System.out.println("Current time: " + now);
-
-        List<TestAssignment> assignments = testAssignmentRepository
-                .findActiveAssignmentsByUser(employee, now);
-
-        System.out.println("Total assignments found: " + assignments.size());
-
-        for (TestAssignment assignment : assignments) {
-            System.out.println("Assignment ID: " + assignment.getId());
-            System.out.println("  Test ID: " + assignment.getTest().getId());
-            System.out.println("  Test Title: " + assignment.getTest().getTitle());
-            System.out.println("  Test isActive: " + assignment.getTest().getIsActive());
-            System.out.println("  Assignment isActive: " + assignment.getIsActive());
-            System.out.println("  Assignment deadline: " + assignment.getDeadline());
-            System.out.println("  Assignment isCompleted: " + assignment.getIsCompleted());
-        }
-
-        List<Test> tests = assignments.stream()
+        return testAssignmentRepository.findAvailableByUserId(employeeId).stream()
                 .map(TestAssignment::getTest)
                 .filter(Test::getIsActive)
                 .toList();
+    }
 
-        System.out.println("Available tests after filtering: " + tests.size());
-        System.out.println("=== END DEBUG ===");
-
-        return tests;
+    // Деактивировать порцию просроченных назначений, вернуть число обновленных строк
+    @Transactional
+    public int deactivateOverdueAssignments(int limit) {
+        return testAssignmentRepository.deactivateOverdue(LocalDateTime.now(), limit);
     }
 
     // Получить назначения теста (HR функция)
@@ -0,0 +1,267 @@
+package org.legend8883.competencytestingsystem.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.dto.request.AnswerOptionRequest;
+import org.legend8883.competencytestingsystem.dto.request.CreateTestRequest;
+import org.legend8883.competencytestingsystem.dto.request.QuestionRequest;
+import org.legend8883.competencytestingsystem.dto.response.TestImportResponse;
+import org.legend8883.competencytestingsystem.dto.response.TestImportResultResponse;
+import org.legend8883.competencytestingsystem.entity.Question;
+import org.legend8883.competencytestingsystem.entity.QuestionType;
+import org.legend8883.competencytestingsystem.entity.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Потоковый импорт тестов: JSON-массив тестов или последовательность объектов (JSON lines).
+ * Вопросы читаются по одному, проверяются сразу и пишутся пачками с очисткой
+ * контекста persistence, поэтому память не зависит от размера файла.
+ * Каждый тест импортируется в своей транзакции: ошибка откатывает только его.
+ * Поля теста (title, timeLimitMinutes, ...) должны идти до массива questions.
+ */
+@Slf4j
+@Service
+public class TestImportService {
+
+    private final TestService testService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader valueReader;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public TestImportService(TestService testService,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.import.batch-size:100}") int batchSize) {
+        this.testService = testService;
+        this.objectMapper = objectMapper;
+        // Значения читаются из середины потока: проверка хвостовых токенов (в Jackson 3
+        // включена по умолчанию) приняла бы следующее поле за мусор после значения
+        this.valueReader = objectMapper.reader().without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    // Состояние импорта одного теста
+    private static final class TestImport {
+        private final CreateTestRequest header = new CreateTestRequest();
+        private final List<Question> pending = new ArrayList<>();
+        private Long testId;
+        private Test testRef;
+        private int questionCount;
+        private int maxPossibleScore;
+        private boolean hasOpenQuestions;
+        private String error;
+    }
+
+    public TestImportResponse importTests(InputStream input, Long hrId) {
+        TestImportResponse response = new TestImportResponse();
+
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                int index = response.getResults().size();
+                if (token != JsonToken.START_OBJECT) {
+                    addResult(response, failed(index, null, "Ожидался объект теста"));
+                    break;
+                }
+
+                TestImportResultResponse result;
+                try {
+                    result = importTest(parser, index, hrId);
+                } catch (JacksonException e) {
+                    // Поток поврежден: дальше разобрать его нельзя
+                    addResult(response, failed(index, null, "Некорректный JSON: " + e.getOriginalMessage()));
+                    break;
+                } catch (RuntimeException e) {
+                    addResult(response, failed(index, null, e.getMessage()));
+                    break;
+                }
+
+                addResult(response, result);
+                token = parser.nextToken();
+            }
+        } catch (JacksonException e) {
+            addResult(response, failed(response.getResults().size(), null,
+                    "Некорректный JSON: " + e.getOriginalMessage()));
+        }
+
+        log.info("Test import finished: {} imported, {} failed",
+                response.getImportedCount(), response.getFailedCount());
+        return response;
+    }
+
+    // Разобрать объект теста (текущий токен - START_OBJECT) в отдельной транзакции
+    private TestImportResultResponse importTest(JsonParser parser, int index, Long hrId) {
+        TestImport state = new TestImport();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "title" -> state.header.setTitle(valueReader.forType(String.class).readValue(parser));
+                    case "description" -> state.header.setDescription(valueReader.forType(String.class).readValue(parser));
+                    case "timeLimitMinutes" -> state.header.setTimeLimitMinutes(valueReader.forType(Integer.class).readValue(parser));
+                    case "passingScore" -> state.header.setPassingScore(valueReader.forType(Integer.class).readValue(parser));
+                    case "questions" -> readQuestions(parser, state, hrId);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            // Тест без вопросов
+            if (state.testId == null && state.error == null) {
+                createTest(state, hrId);
+            }
+            if (state.error == null) {
+                flush(state);
+                testService.updateQuestionAggregates(state.testId, state.questionCount,
+                        state.maxPossibleScore, state.hasOpenQuestions);
+            } else {
+                status.setRollbackOnly();
+            }
+        });
+
+        if (state.error != null) {
+            return failed(index, state.header.getTitle(), state.error);
+        }
+
+        TestImportResultResponse result = new TestImportResultResponse();
+        result.setIndex(index);
+        result.setTitle(state.header.getTitle());
+        result.setSuccess(true);
+        result.setTestId(state.testId);
+        result.setQuestionCount(state.questionCount);
+        return result;
+    }
+
+    private void readQuestions(JsonParser parser, TestImport state, Long hrId) {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            state.error = "Поле questions должно быть массивом";
+            parser.skipChildren();
+            return;
+        }
+        if (state.testId == null && state.error == null) {
+            createTest(state, hrId);
+        }
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            // После ошибки оставшиеся вопросы только пропускаются
+            if (state.error != null) {
+                parser.skipChildren();
+                continue;
+            }
+
+            QuestionRequest question = valueReader.forType(QuestionRequest.class).readValue(parser);
+            String error = validateQuestion(question);
+            if (error != null) {
+                state.error = "Вопрос " + (state.questionCount + 1) + ": " + error;
+                continue;
+            }
+
+            state.pending.add(testService.buildQuestion(state.testRef, question, state.questionCount));
+            state.questionCount++;
+            state.maxPossibleScore += question.getMaxScore();
+            state.hasOpenQuestions |= QuestionType.valueOf(question.getType()) == QuestionType.OPEN_ANSWER;
+
+            if (state.pending.size() >= batchSize) {
+                flush(state);
+            }
+        }
+    }
+
+    private void createTest(TestImport state, Long hrId) {
+        String error = firstViolation(validator.validate(state.header));
+        if (error != null) {
+            state.error = error;
+            return;
+        }
+        state.testId = testService.createTestHeader(state.header, hrId).getId();
+        state.testRef = entityManager.getReference(Test.class, state.testId);
+    }
+
+    // Записать накопленные вопросы пакетом и отпустить их из контекста persistence
+    private void flush(TestImport state) {
+        if (state.pending.isEmpty()) {
+            return;
+        }
+        testService.saveQuestions(state.pending);
+        entityManager.flush();
+        entityManager.clear();
+        state.pending.clear();
+        state.testRef = entityManager.getReference(Test.class, state.testId);
+    }
+
+    private String validateQuestion(QuestionRequest question) {
+        String error = firstViolation(validator.validate(question));
+        if (error != null) {
+            return error;
+        }
+
+        QuestionType type;
+        try {
+            type = QuestionType.valueOf(question.getType());
+        } catch (IllegalArgumentException e) {
+            return "Неизвестный тип вопроса: " + question.getType();
+        }
+
+        if (type != QuestionType.OPEN_ANSWER && question.getOptions() != null) {
+            for (AnswerOptionRequest option : question.getOptions()) {
+                error = firstViolation(validator.validate(option));
+                if (error != null) {
+                    return error;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static <T> String firstViolation(Set<ConstraintViolation<T>> violations) {
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    private static TestImportResultResponse failed(int index, String title, String error) {
+        TestImportResultResponse result = new TestImportResultResponse();
+        result.setIndex(index);
+        result.setTitle(title);
+        result.setSuccess(false);
+        result.setError(error);
+        return result;
+    }
+
+    private static void addResult(TestImportResponse response, TestImportResultResponse result) {
+        response.getResults().add(result);
+        if (result.isSuccess()) {
+            response.setImportedCount(response.getImportedCount() + 1);
+        } else {
+            response.setFailedCount(response.getFailedCount() + 1);
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package org.legend8883.competencytestingsystem.service;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.legend8883.competencytestingsystem.blueprint.TestBlueprintCache;
 import org.legend8883.competencytestingsystem.dto.request.CreateTestRequest;
+import org.legend8883.competencytestingsystem.dto.request.QuestionRequest;
 import org.legend8883.competencytestingsystem.dto.response.TestResponse;
 import org.legend8883.competencytestingsystem.entity.*;
 import org.legend8883.competencytestingsystem.mapper.QuestionMapper;
@@ -19,14 +24,40 @@ public class TestService {
 
     private final TestRepository testRepository;
     private final QuestionRepository questionRepository;
-    private final AnswerOptionRepository answerOptionRepository;
     private final UserRepository userRepository;
     private final TestMapper testMapper;
     private final QuestionMapper questionMapper;
+    private final TestBlueprintCache testBlueprintCache;
+    private final EntityManagerFactory entityManagerFactory;
 
     // Создать новый тест
     @Transactional
     public TestResponse createTest(CreateTestRequest request, Long hrId) {
+        // 1-4. Проверить HR и сохранить тест
+        Test savedTest = createTestHeader(request, hrId);
+
+        // 5. Создать вопросы и варианты ответов
+        if (request.getQuestions() != null) {
+            List<Question> questions = new ArrayList<>();
+
+            for (int i = 0; i < request.getQuestions().size(); i++) {
+                questions.add(buildQuestion(savedTest, request.getQuestions().get(i), i));
+            }
+
+            // Вопросы и (каскадом) варианты уходят JDBC-пакетами
+            saveQuestions(questions);
+
+            savedTest.setQuestions(questions);
+            updateQuestionAggregates(savedTest, questions);
+        }
+
+        // 6. Вернуть DTO
+        return testMapper.toDto(savedTest);
+    }
+
+    // Проверить HR и сохранить тест без вопросов (создание и импорт тестов)
+    @Transactional
+    public Test createTestHeader(CreateTestRequest request, Long hrId) {
         // 1. Найти HR пользователя
         User hr = userRepository.findById(hrId)
                 .orElseThrow(() -> new RuntimeException("HR not found with id: " + hrId));
@@ -41,57 +72,54 @@ public class TestService {
         test.setCreatedBy(hr);
 
         // 4. Сохранить тест
-        Test savedTest = testRepository.save(test);
-
-        // 5. Создать вопросы и варианты ответов
-        if (request.getQuestions() != null) {
-            List<Question> questions = new ArrayList<>();
-
-            for (int i = 0; i < request.getQuestions().size(); i++) {
-                var questionRequest = request.getQuestions().get(i);
-
-                // Создать вопрос
-                Question question = questionMapper.toEntity(questionRequest);
-                question.setTest(savedTest);
-                question.setOrderIndex(i);
-
-                // Определить тип вопроса
-                question.setType(QuestionType.valueOf(questionRequest.getType()));
-
-                // Сохранить вопрос
-                Question savedQuestion = questionRepository.save(question);
-
-                // Создать варианты ответов (только для CHOICE вопросов)
-                if (questionRequest.getOptions() != null &&
-                        (question.getType() == QuestionType.SINGLE_CHOICE ||
-                                question.getType() == QuestionType.MULTIPLE_CHOICE)) {
+        return testRepository.save(test);
+    }
 
-                    List<AnswerOption> options = new ArrayList<>();
+    // Вопрос с вариантами ответов, еще не сохраненный; варианты сохраняются каскадом
+    public Question buildQuestion(Test test, QuestionRequest questionRequest, int orderIndex) {
+        Question question = questionMapper.toEntity(questionRequest);
+        question.setTest(test);
+        question.setOrderIndex(orderIndex);
 
-                    for (int j = 0; j < questionRequest.getOptions().size(); j++) {
-                        var optionRequest = questionRequest.getOptions().get(j);
+        // Определить тип вопроса
+        question.setType(QuestionType.valueOf(questionRequest.getType()));
 
-                        AnswerOption option = new AnswerOption();
-                        option.setText(optionRequest.getText());
-                        option.setIsCorrect(optionRequest.getIsCorrect());
-                        option.setQuestion(savedQuestion);
-                        option.setOrderIndex(j);
+        // Создать варианты ответов (только для CHOICE вопросов)
+        if (questionRequest.getOptions() != null && question.isChoiceQuestion()) {
+            List<AnswerOption> options = new ArrayList<>();
 
-                        options.add(option);
-                    }
+            for (int j = 0; j < questionRequest.getOptions().size(); j++) {
+                var optionRequest = questionRequest.getOptions().get(j);
 
-                    answerOptionRepository.saveAll(options);
-                    savedQuestion.setOptions(options);
-                }
+                AnswerOption option = new AnswerOption();
+                option.setText(optionRequest.getText());
+                option.setIsCorrect(optionRequest.getIsCorrect());
+                option.setQuestion(question);
+                option.setOrderIndex(j);
 
-                questions.add(savedQuestion);
+                options.add(option);
             }
 
-            savedTest.setQuestions(questions);
+            question.setOptions(options);
         }
 
-        // 6. Вернуть DTO
-        return testMapper.toDto(savedTest);
+        return question;
+    }
+
+    @Transactional
+    public void saveQuestions(List<Question> questions) {
+        questionRepository.saveAll(questions);
+    }
+
+    // Записать агрегаты теста, посчитанные вызывающим кодом (потоковый импорт)
+    @Transactional
+    public void updateQuestionAggregates(Long testId, int questionCount, int maxPossibleScore,
+                                         boolean hasOpenQuestions) {
+        Test test = testRepository.findById(testId)
+                .orElseThrow(() -> new RuntimeException("Test not found with id: " + testId));
+        test.setQuestionCount(questionCount);
+        test.setMaxPossibleScore(maxPossibleScore);
+        test.setHasOpenQuestions(hasOpenQuestions);
     }
 
     // Получить все тесты HR
@@ -101,7 +129,7 @@ public class TestService {
 
         List<Test> tests = testRepository.findByCreatedBy(hr);
         return tests.stream()
-                .map(testMapper::toDto)
+                .map(testMapper::toSummaryDto)
                 .toList();
     }
 
@@ -133,6 +161,34 @@ public class TestService {
         test.setIsActive(isActive);
         Test updatedTest = testRepository.save(test);
 
+        // Снимок теста для прохождения больше не актуален
+        evictTestCaches(testId);
+
         return testMapper.toDto(updatedTest);
     }
+
+    /**
+     * Сбросить тест из всех кэшей: снимок для прохождения и регионы второго уровня.
+     * Изменения через Hibernate обновляют L2 сами, явный сброс нужен для записей
+     * в обход сессии (нативный SQL) и для коллекций, меняемых со стороны вопросов.
+     */
+    private void evictTestCaches(Long testId) {
+        testBlueprintCache.invalidate(testId);
+
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Test.class, testId);
+        cache.evictCollectionData(Test.class.getName() + ".questions", testId);
+        cache.evictQueryRegions();
+    }
+
+    // Пересчитать агрегаты теста по его вопросам; вызывается в той же транзакции,
+    // что и изменение вопросов, и сохраняется вместе с ним
+    private void updateQuestionAggregates(Test test, List<Question> questions) {
+        test.setQuestionCount(questions.size());
+        test.setMaxPossibleScore(questions.stream()
+                .mapToInt(question -> question.getMaxScore() != null ? question.getMaxScore() : 0)
+                .sum());
+        test.setHasOpenQuestions(questions.stream()
+                .anyMatch(question -> question.getType() == QuestionType.OPEN_ANSWER));
+    }
 }
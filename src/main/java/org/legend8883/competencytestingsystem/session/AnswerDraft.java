@@ -0,0 +1,45 @@
+package org.legend8883.competencytestingsystem.session;
+
+import org.legend8883.competencytestingsystem.entity.Answer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Итоговое состояние ответа на вопрос, еще не записанное в БД.
+ * Для вопросов с выбором хранит выбранные варианты и балл, для открытых - текст.
+ */
+public record AnswerDraft(Long questionId,
+                          boolean choice,
+                          List<Long> selectedOptionIds,
+                          String openAnswerText,
+                          Integer autoScore,
+                          LocalDateTime answeredAt) {
+
+    public static AnswerDraft choice(Long questionId, List<Long> selectedOptionIds, int autoScore,
+                                     LocalDateTime answeredAt) {
+        return new AnswerDraft(questionId, true, List.copyOf(selectedOptionIds), null, autoScore, answeredAt);
+    }
+
+    public static AnswerDraft open(Long questionId, String openAnswerText, LocalDateTime answeredAt) {
+        // Открытые вопросы проверяются HR вручную
+        return new AnswerDraft(questionId, false, null, openAnswerText, 0, answeredAt);
+    }
+
+    public void applyTo(Answer answer) {
+        if (choice) {
+            answer.setSelectedOptionIds(selectedOptionIds);
+        } else {
+            answer.setOpenAnswerText(openAnswerText);
+        }
+        answer.setAutoScore(autoScore);
+        answer.setAnsweredAt(answeredAt);
+    }
+
+    public boolean hasContent() {
+        if (choice) {
+            return selectedOptionIds != null && !selectedOptionIds.isEmpty();
+        }
+        return openAnswerText != null && !openAnswerText.trim().isEmpty();
+    }
+}
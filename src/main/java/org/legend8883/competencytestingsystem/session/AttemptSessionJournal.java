@@ -0,0 +1,193 @@
+package org.legend8883.competencytestingsystem.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.config.AttemptSessionProperties;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Локальный журнал черновиков ответов: JSON по строке на черновик, только дозапись.
+ * Журнал разбит на сегменты: перед сбросом в БД активный сегмент закрывается,
+ * а после успешного сброса закрытые сегменты удаляются. Сегменты прошлых запусков
+ * отделены от своих: их удаляет только восстановление после успешной записи в БД.
+ */
+@Slf4j
+@Component
+public class AttemptSessionJournal {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    public record Entry(Long attemptId, AnswerDraft draft) {
+    }
+
+    private final AttemptSessionProperties properties;
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+    private final Path directory;
+
+    // Не synchronized: запись и fsync под монитором закрепили бы виртуальный поток запроса
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel activeChannel;
+    private Path activePath;
+    private long segmentCounter;
+
+    // Сегменты, созданные этим процессом
+    private final Set<Path> ownSegments = new HashSet<>();
+
+    public AttemptSessionJournal(AttemptSessionProperties properties) {
+        this.properties = properties;
+        this.directory = Paths.get(properties.getJournalDir());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled() && properties.isJournalEnabled();
+    }
+
+    public void append(Long attemptId, Collection<AnswerDraft> drafts) {
+        if (!isEnabled()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (AnswerDraft draft : drafts) {
+            lines.append(objectMapper.writeValueAsString(new Entry(attemptId, draft))).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        lock.lock();
+        try {
+            FileChannel channel = activeChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (properties.isJournalFsync()) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write attempt session journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Закрывает активный сегмент и возвращает закрытые сегменты этого процесса в порядке записи.
+     */
+    public List<Path> roll() {
+        lock.lock();
+        try {
+            if (activeChannel != null) {
+                activeChannel.close();
+                activeChannel = null;
+                activePath = null;
+            }
+            return ownSegments.stream().sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll attempt session journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сегменты, оставшиеся от прошлых запусков (падение до сброса в БД), в порядке записи.
+     */
+    public List<Path> recoverable() {
+        lock.lock();
+        try {
+            return sealedSegments().stream()
+                    .filter(path -> !ownSegments.contains(path))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list attempt session journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Entry> read(List<Path> segments) {
+        List<Entry> entries = new ArrayList<>();
+        for (Path segment : segments) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        entries.add(objectMapper.readValue(line, Entry.class));
+                    } catch (RuntimeException e) {
+                        // Оборванная последняя строка после падения процесса
+                        log.warn("Skipping unreadable journal line in {}", segment.getFileName());
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read attempt session journal", e);
+            }
+        }
+        return entries;
+    }
+
+    public void delete(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+                lock.lock();
+                try {
+                    ownSegments.remove(segment);
+                } finally {
+                    lock.unlock();
+                }
+            } catch (IOException e) {
+                log.warn("Cannot delete journal segment {}: {}", segment.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private FileChannel activeChannel() throws IOException {
+        if (activeChannel == null) {
+            Files.createDirectories(directory);
+            // Имя сегмента упорядочено по времени создания
+            activePath = directory.resolve(String.format("%s%013d-%06d%s",
+                    SEGMENT_PREFIX, System.currentTimeMillis(), segmentCounter++ % 1_000_000, SEGMENT_SUFFIX));
+            activeChannel = FileChannel.open(activePath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            ownSegments.add(activePath);
+        }
+        return activeChannel;
+    }
+
+    private List<Path> sealedSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .filter(path -> !path.equals(activePath))
+                    .sorted()
+                    .toList();
+        }
+    }
+}
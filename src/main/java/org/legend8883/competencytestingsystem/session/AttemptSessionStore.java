@@ -0,0 +1,213 @@
+package org.legend8883.competencytestingsystem.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.config.AttemptSessionProperties;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хранилище ответов незавершенных попыток (режим сессии, app.session.enabled).
+ * Ответ сначала дописывается в журнал, затем попадает в память; в БД черновики
+ * уходят раз в app.session.flush-interval-ms и обязательно перед завершением попытки.
+ * Число попыток ограничено: если места нет, вызывающий код пишет в БД сразу.
+ */
+@Slf4j
+@Component
+public class AttemptSessionStore implements SmartInitializingSingleton {
+
+    private final AttemptSessionProperties properties;
+    private final AttemptSessionJournal journal;
+    private final AttemptSessionWriter writer;
+
+    // attemptId -> (questionId -> черновик); внутренние карты меняются только через compute
+    private final ConcurrentHashMap<Long, Map<Long, AnswerDraft>> sessions = new ConcurrentHashMap<>();
+
+    // Запись (журнал + память) - под read-блокировкой, смена сегмента журнала - под write
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+
+    public AttemptSessionStore(AttemptSessionProperties properties,
+                               AttemptSessionJournal journal,
+                               AttemptSessionWriter writer) {
+        this.properties = properties;
+        this.journal = journal;
+        this.writer = writer;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Принимает черновики попытки. false - режим выключен или хранилище заполнено,
+     * тогда ответы нужно записать в БД напрямую.
+     */
+    public boolean putAll(Long attemptId, Collection<AnswerDraft> drafts) {
+        if (!isEnabled()) {
+            return false;
+        }
+        journalLock.readLock().lock();
+        try {
+            if (!sessions.containsKey(attemptId) && sessions.size() >= properties.getMaxAttempts()) {
+                return false;
+            }
+            if (drafts.isEmpty()) {
+                return true;
+            }
+            journal.append(attemptId, drafts);
+            sessions.compute(attemptId, (id, session) -> {
+                Map<Long, AnswerDraft> updated = session != null ? session : new HashMap<>();
+                drafts.forEach(draft -> updated.put(draft.questionId(), draft));
+                return updated;
+            });
+            return true;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    public boolean put(Long attemptId, AnswerDraft draft) {
+        return putAll(attemptId, List.of(draft));
+    }
+
+    // Несброшенные черновики попытки (копия)
+    public Map<Long, AnswerDraft> pending(Long attemptId) {
+        if (!isEnabled()) {
+            return Map.of();
+        }
+        Map<Long, AnswerDraft> copy = new HashMap<>();
+        sessions.computeIfPresent(attemptId, (id, session) -> {
+            copy.putAll(session);
+            return session;
+        });
+        return copy;
+    }
+
+    /**
+     * Сбрасывает черновики указанных попыток в текущей транзакции
+     * (завершение и автоотправка). Из памяти они убираются после коммита.
+     */
+    public void flushAttempts(Collection<Long> attemptIds) {
+        if (!isEnabled()) {
+            return;
+        }
+        Map<Long, Map<Long, AnswerDraft>> snapshot = new LinkedHashMap<>();
+        for (Long attemptId : attemptIds) {
+            Map<Long, AnswerDraft> drafts = pending(attemptId);
+            if (!drafts.isEmpty()) {
+                snapshot.put(attemptId, drafts);
+            }
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+
+        writer.write(snapshot);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeFlushed(snapshot);
+                }
+            });
+        } else {
+            removeFlushed(snapshot);
+        }
+    }
+
+    // Периодический сброс всех черновиков
+    @Scheduled(fixedDelayString = "${app.session.flush-interval-ms:5000}")
+    public void flushAll() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        List<Path> sealedSegments;
+        Map<Long, Map<Long, AnswerDraft>> snapshot = new LinkedHashMap<>();
+        journalLock.writeLock().lock();
+        try {
+            // Закрытые сегменты этого процесса: все их черновики к этому моменту уже в памяти.
+            // Сегменты прошлых запусков сюда не попадают, их удаляет только replayJournal
+            sealedSegments = journal.roll();
+            sessions.keySet().forEach(attemptId -> {
+                Map<Long, AnswerDraft> drafts = pending(attemptId);
+                if (!drafts.isEmpty()) {
+                    snapshot.put(attemptId, drafts);
+                }
+            });
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+
+        if (!snapshot.isEmpty()) {
+            try {
+                writer.write(snapshot);
+            } catch (RuntimeException e) {
+                // Черновики и сегменты журнала остаются до следующей попытки
+                log.error("Attempt session flush failed: {}", e.getMessage());
+                return;
+            }
+            removeFlushed(snapshot);
+        }
+        journal.delete(sealedSegments);
+    }
+
+    // Восстановление до запуска планировщика и веб-сервера, чтобы черновики прошлого
+    // запуска не перезаписали новые ответы
+    @Override
+    public void afterSingletonsInstantiated() {
+        replayJournal();
+    }
+
+    // Восстановление после падения: черновики из журнала пишутся в БД.
+    // Выполняется и при выключенном режиме, чтобы не потерять хвост прошлого запуска
+    public void replayJournal() {
+        List<Path> segments = journal.recoverable();
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        // Последний черновик по каждому вопросу в порядке записи
+        Map<Long, Map<Long, AnswerDraft>> latest = new LinkedHashMap<>();
+        for (AttemptSessionJournal.Entry entry : journal.read(segments)) {
+            latest.computeIfAbsent(entry.attemptId(), id -> new HashMap<>())
+                    .put(entry.draft().questionId(), entry.draft());
+        }
+
+        int written;
+        try {
+            written = writer.write(latest);
+        } catch (RuntimeException e) {
+            // Сегменты остаются на диске и будут обработаны при следующем запуске
+            log.error("Attempt session journal replay failed: {}", e.getMessage());
+            return;
+        }
+        journal.delete(segments);
+        log.info("Replayed attempt session journal: {} answers for {} attempts", written, latest.size());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // Убрать сброшенные черновики, если их не успели перезаписать новыми
+    private void removeFlushed(Map<Long, Map<Long, AnswerDraft>> snapshot) {
+        snapshot.forEach((attemptId, flushed) -> sessions.computeIfPresent(attemptId, (id, session) -> {
+            flushed.forEach((questionId, draft) -> session.remove(questionId, draft));
+            return session.isEmpty() ? null : session;
+        }));
+    }
+}
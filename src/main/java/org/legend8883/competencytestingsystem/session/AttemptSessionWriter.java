@@ -0,0 +1,70 @@
+package org.legend8883.competencytestingsystem.session;
+
+import lombok.RequiredArgsConstructor;
+import org.legend8883.competencytestingsystem.entity.Answer;
+import org.legend8883.competencytestingsystem.repository.AnswerRepository;
+import org.legend8883.competencytestingsystem.repository.AttemptRepository;
+import org.legend8883.competencytestingsystem.repository.QuestionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Запись черновиков в answers пакетами
+@Component
+@RequiredArgsConstructor
+public class AttemptSessionWriter {
+
+    private final AnswerRepository answerRepository;
+    private final AttemptRepository attemptRepository;
+    private final QuestionRepository questionRepository;
+
+    /**
+     * Применяет черновики к ответам незавершенных попыток: один запрос на чтение,
+     * изменения уходят JDBC-пакетами. Черновики завершенных попыток и черновики старше
+     * записанного ответа отбрасываются.
+     */
+    @Transactional
+    public int write(Map<Long, Map<Long, AnswerDraft>> draftsByAttempt) {
+        if (draftsByAttempt.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Map<Long, Answer>> answersByAttempt = new HashMap<>();
+        for (Answer answer : answerRepository.findInProgressByAttemptIds(draftsByAttempt.keySet())) {
+            answersByAttempt
+                    .computeIfAbsent(answer.getAttempt().getId(), id -> new HashMap<>())
+                    .putIfAbsent(answer.getQuestion().getId(), answer);
+        }
+
+        List<Answer> changed = new ArrayList<>();
+        answersByAttempt.forEach((attemptId, answers) -> {
+            for (AnswerDraft draft : draftsByAttempt.get(attemptId).values()) {
+                Answer answer = answers.get(draft.questionId());
+                if (answer == null) {
+                    answer = new Answer();
+                    answer.setAttempt(attemptRepository.getReferenceById(attemptId));
+                    answer.setQuestion(questionRepository.getReferenceById(draft.questionId()));
+                } else if (isOlder(draft, answer)) {
+                    // В БД уже более поздний ответ: например, журнал восстановлен после новой записи
+                    continue;
+                }
+                draft.applyTo(answer);
+                changed.add(answer);
+            }
+        });
+
+        answerRepository.saveAll(changed);
+        // Сразу в БД: следом может идти подсчет баллов нативным запросом
+        answerRepository.flush();
+        return changed.size();
+    }
+
+    private static boolean isOlder(AnswerDraft draft, Answer answer) {
+        return draft.answeredAt() != null && answer.getAnsweredAt() != null
+                && draft.answeredAt().isBefore(answer.getAnsweredAt());
+    }
+}
@@ -0,0 +1,64 @@
+package org.legend8883.competencytestingsystem.template;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.legend8883.competencytestingsystem.dto.request.CreateTestRequest;
+import org.legend8883.competencytestingsystem.dto.request.QuestionRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * Стартовый тест для новых HR (app.default-test.template).
+ * Файл читается и проверяется при запуске приложения: битый шаблон
+ * останавливает старт, а не регистрацию HR.
+ */
+@Slf4j
+@Component
+public class DefaultTestTemplate {
+
+    private final TestTemplate template;
+
+    public DefaultTestTemplate(ObjectMapper objectMapper,
+                               Validator validator,
+                               @Value("${app.default-test.template:classpath:tests/java_test_50_questions.json}")
+                               Resource resource) {
+        CreateTestRequest request;
+        try (InputStream is = resource.getInputStream()) {
+            request = objectMapper.readValue(is, CreateTestRequest.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read default test template " + resource, e);
+        }
+
+        check(validator.validate(request));
+        if (request.getQuestions() != null) {
+            for (QuestionRequest question : request.getQuestions()) {
+                check(validator.validate(question));
+                if (question.getOptions() != null) {
+                    question.getOptions().forEach(option -> check(validator.validate(option)));
+                }
+            }
+        }
+
+        this.template = TestTemplate.from(request);
+        log.info("Default test template loaded: {} questions, {} options",
+                template.getQuestionCount(), template.getOptionCount());
+    }
+
+    public TestTemplate get() {
+        return template;
+    }
+
+    private static <T> void check(Set<ConstraintViolation<T>> violations) {
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Invalid default test template: "
+                    + violations.iterator().next().getMessage());
+        }
+    }
+}
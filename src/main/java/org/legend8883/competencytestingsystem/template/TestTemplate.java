@@ -0,0 +1,108 @@
+package org.legend8883.competencytestingsystem.template;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.legend8883.competencytestingsystem.dto.request.AnswerOptionRequest;
+import org.legend8883.competencytestingsystem.dto.request.CreateTestRequest;
+import org.legend8883.competencytestingsystem.dto.request.QuestionRequest;
+import org.legend8883.competencytestingsystem.entity.QuestionType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Неизменяемый шаблон теста, разобранный один раз при старте.
+ * Вопросы и варианты хранятся по столбцам - в таком виде они передаются
+ * массивами в INSERT ... SELECT FROM unnest(...) при клонировании.
+ */
+@Getter
+public final class TestTemplate {
+
+    private final String title;
+    private final String description;
+    private final Integer timeLimitMinutes;
+    private final Integer passingScore;
+    private final int questionCount;
+    private final int maxPossibleScore;
+    private final boolean hasOpenQuestions;
+
+    // Столбцы вопросов, индекс массива = order_index
+    @Getter(AccessLevel.PACKAGE)
+    private final String[] questionTexts;
+    @Getter(AccessLevel.PACKAGE)
+    private final String[] questionTypes;
+    @Getter(AccessLevel.PACKAGE)
+    private final String[] correctOpenAnswers;
+    @Getter(AccessLevel.PACKAGE)
+    private final Integer[] maxScores;
+
+    // Столбцы вариантов ответов; optionQuestionIndexes - индекс вопроса-владельца
+    @Getter(AccessLevel.PACKAGE)
+    private final Integer[] optionQuestionIndexes;
+    @Getter(AccessLevel.PACKAGE)
+    private final String[] optionTexts;
+    @Getter(AccessLevel.PACKAGE)
+    private final Boolean[] optionCorrect;
+    @Getter(AccessLevel.PACKAGE)
+    private final Integer[] optionOrderIndexes;
+
+    private TestTemplate(CreateTestRequest request) {
+        this.title = request.getTitle();
+        this.description = request.getDescription();
+        this.timeLimitMinutes = request.getTimeLimitMinutes();
+        this.passingScore = request.getPassingScore();
+
+        List<QuestionRequest> questions = request.getQuestions() != null ? request.getQuestions() : List.of();
+        int count = questions.size();
+        this.questionCount = count;
+        this.questionTexts = new String[count];
+        this.questionTypes = new String[count];
+        this.correctOpenAnswers = new String[count];
+        this.maxScores = new Integer[count];
+
+        List<Integer> optionQuestions = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        List<Boolean> correct = new ArrayList<>();
+        List<Integer> orders = new ArrayList<>();
+        int totalScore = 0;
+        boolean open = false;
+
+        for (int i = 0; i < count; i++) {
+            QuestionRequest question = questions.get(i);
+            QuestionType type = QuestionType.valueOf(question.getType());
+
+            questionTexts[i] = question.getText();
+            questionTypes[i] = type.name();
+            correctOpenAnswers[i] = question.getCorrectOpenAnswer();
+            maxScores[i] = question.getMaxScore();
+            totalScore += question.getMaxScore();
+            open |= type == QuestionType.OPEN_ANSWER;
+
+            // Варианты только у CHOICE вопросов, как в TestService.buildQuestion
+            if (type != QuestionType.OPEN_ANSWER && question.getOptions() != null) {
+                for (int j = 0; j < question.getOptions().size(); j++) {
+                    AnswerOptionRequest option = question.getOptions().get(j);
+                    optionQuestions.add(i);
+                    texts.add(option.getText());
+                    correct.add(option.getIsCorrect());
+                    orders.add(j);
+                }
+            }
+        }
+
+        this.maxPossibleScore = totalScore;
+        this.hasOpenQuestions = open;
+        this.optionQuestionIndexes = optionQuestions.toArray(Integer[]::new);
+        this.optionTexts = texts.toArray(String[]::new);
+        this.optionCorrect = correct.toArray(Boolean[]::new);
+        this.optionOrderIndexes = orders.toArray(Integer[]::new);
+    }
+
+    public static TestTemplate from(CreateTestRequest request) {
+        return new TestTemplate(request);
+    }
+
+    public int getOptionCount() {
+        return optionTexts.length;
+    }
+}
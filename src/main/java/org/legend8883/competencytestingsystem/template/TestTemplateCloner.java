@@ -0,0 +1,120 @@
+package org.legend8883.competencytestingsystem.template;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Создает копию шаблона для HR набором INSERT ... SELECT FROM unnest(...):
+ * число запросов не зависит от числа вопросов и вариантов.
+ */
+@Component
+public class TestTemplateCloner {
+
+    // Совпадает с allocationSize в Question/AnswerOption и INCREMENT BY в V3
+    private static final int SEQUENCE_BLOCK = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public Long cloneFor(TestTemplate template, Long hrId) {
+        Long testId = ((Number) entityManager.createNativeQuery(
+                "SELECT nextval(pg_get_serial_sequence('tests', 'id'))").getSingleResult()).longValue();
+
+        nativeUpdate("""
+                INSERT INTO tests (id, title, description, time_limit_minutes, passing_score, created_by,
+                                   is_active, created_at, updated_at,
+                                   question_count, max_possible_score, has_open_questions)
+                VALUES (:id, :title, :description, :timeLimit, :passingScore, :hrId,
+                        TRUE, LOCALTIMESTAMP, LOCALTIMESTAMP,
+                        :questionCount, :maxScore, :hasOpen)
+                """, "tests")
+                .setParameter("id", testId)
+                .setParameter("title", template.getTitle())
+                .setParameter("description", template.getDescription())
+                .setParameter("timeLimit", template.getTimeLimitMinutes())
+                .setParameter("passingScore", template.getPassingScore())
+                .setParameter("hrId", hrId)
+                .setParameter("questionCount", template.getQuestionCount())
+                .setParameter("maxScore", template.getMaxPossibleScore())
+                .setParameter("hasOpen", template.isHasOpenQuestions())
+                .executeUpdate();
+
+        if (template.getQuestionCount() == 0) {
+            return testId;
+        }
+
+        // id выдаются блоками той же последовательности, что и у Hibernate,
+        // поэтому варианты сразу ссылаются на вопросы без чтения их id обратно
+        Long[] questionIds = allocateIds("questions_seq", template.getQuestionCount());
+        nativeUpdate("""
+                INSERT INTO questions (id, text, question_type, correct_open_answer, max_score, test_id, order_index)
+                SELECT q.id, q.text, q.question_type, q.correct_open_answer, q.max_score, :testId, q.ord - 1
+                FROM unnest(CAST(:ids AS bigint[]), CAST(:texts AS text[]), CAST(:types AS varchar[]),
+                            CAST(:openAnswers AS text[]), CAST(:maxScores AS integer[]))
+                     WITH ORDINALITY AS q(id, text, question_type, correct_open_answer, max_score, ord)
+                """, "questions")
+                .setParameter("testId", testId)
+                .setParameter("ids", questionIds)
+                .setParameter("texts", template.getQuestionTexts())
+                .setParameter("types", template.getQuestionTypes())
+                .setParameter("openAnswers", template.getCorrectOpenAnswers())
+                .setParameter("maxScores", template.getMaxScores())
+                .executeUpdate();
+
+        if (template.getOptionCount() == 0) {
+            return testId;
+        }
+
+        Integer[] questionIndexes = template.getOptionQuestionIndexes();
+        Long[] optionQuestionIds = new Long[questionIndexes.length];
+        for (int i = 0; i < questionIndexes.length; i++) {
+            optionQuestionIds[i] = questionIds[questionIndexes[i]];
+        }
+
+        nativeUpdate("""
+                INSERT INTO answer_options (id, text, is_correct, question_id, order_index)
+                SELECT o.id, o.text, o.is_correct, o.question_id, o.order_index
+                FROM unnest(CAST(:ids AS bigint[]), CAST(:texts AS text[]), CAST(:correct AS boolean[]),
+                            CAST(:questionIds AS bigint[]), CAST(:orders AS integer[]))
+                     AS o(id, text, is_correct, question_id, order_index)
+                """, "answer_options")
+                .setParameter("ids", allocateIds("answer_options_seq", template.getOptionCount()))
+                .setParameter("texts", template.getOptionTexts())
+                .setParameter("correct", template.getOptionCorrect())
+                .setParameter("questionIds", optionQuestionIds)
+                .setParameter("orders", template.getOptionOrderIndexes())
+                .executeUpdate();
+
+        return testId;
+    }
+
+    // Pooled-оптимизатор: nextval = v закрепляет за вызывающим id v-49..v
+    private Long[] allocateIds(String sequence, int count) {
+        int blocks = (count + SEQUENCE_BLOCK - 1) / SEQUENCE_BLOCK;
+        List<?> highs = entityManager.createNativeQuery(
+                        "SELECT nextval(CAST(:sequence AS regclass)) FROM generate_series(1, :blocks)")
+                .setParameter("sequence", sequence)
+                .setParameter("blocks", blocks)
+                .getResultList();
+
+        Long[] ids = new Long[count];
+        for (int i = 0; i < count; i++) {
+            long high = ((Number) highs.get(i / SEQUENCE_BLOCK)).longValue();
+            ids[i] = high - SEQUENCE_BLOCK + 1 + i % SEQUENCE_BLOCK;
+        }
+        return ids;
+    }
+
+    // Затронутая таблица указывается явно, иначе Hibernate сбросит весь L2-кэш
+    private NativeQuery<?> nativeUpdate(String sql, String table) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(table);
+    }
+}
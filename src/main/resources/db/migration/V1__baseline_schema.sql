@@ -0,0 +1,82 @@
+-- Базовая схема, соответствующая сущностям на момент перехода на Flyway.
+-- Для уже существующих БД (созданных ddl-auto=update) эта версия пропускается
+-- через baseline-on-migrate, поэтому IF NOT EXISTS здесь - только страховка.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS tests (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title               VARCHAR(255) NOT NULL,
+    description         VARCHAR(255),
+    time_limit_minutes  INTEGER      NOT NULL,
+    passing_score       INTEGER      NOT NULL,
+    created_by          BIGINT       NOT NULL REFERENCES users (id),
+    is_active           BOOLEAN,
+    created_at          TIMESTAMP(6),
+    updated_at          TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS questions (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    text                 TEXT         NOT NULL,
+    question_type        VARCHAR(255) NOT NULL,
+    correct_open_answer  TEXT,
+    max_score            INTEGER      NOT NULL,
+    test_id              BIGINT       NOT NULL REFERENCES tests (id),
+    order_index          INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS answer_options (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    text         TEXT    NOT NULL,
+    is_correct   BOOLEAN,
+    question_id  BIGINT  NOT NULL REFERENCES questions (id),
+    order_index  INTEGER
+);
+
+CREATE TABLE IF NOT EXISTS attempts (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id         BIGINT       NOT NULL REFERENCES users (id),
+    test_id         BIGINT       NOT NULL REFERENCES tests (id),
+    started_at      TIMESTAMP(6),
+    completed_at    TIMESTAMP(6),
+    score           INTEGER,
+    status          VARCHAR(255) NOT NULL,
+    auto_submit_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS answers (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    attempt_id        BIGINT NOT NULL REFERENCES attempts (id),
+    question_id       BIGINT NOT NULL REFERENCES questions (id),
+    open_answer_text  TEXT,
+    assigned_score    INTEGER,
+    auto_score        INTEGER,
+    answered_at       TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS user_selected_options (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    answer_id  BIGINT NOT NULL REFERENCES answers (id),
+    option_id  BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS test_assignments (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    test_id       BIGINT NOT NULL REFERENCES tests (id),
+    user_id       BIGINT NOT NULL REFERENCES users (id),
+    assigned_by   BIGINT NOT NULL REFERENCES users (id),
+    assigned_at   TIMESTAMP(6),
+    deadline      TIMESTAMP(6),
+    is_completed  BOOLEAN,
+    is_active     BOOLEAN
+);
@@ -0,0 +1,57 @@
+-- Индексы под запросы репозиториев. Имена совпадают с теми, что могли быть
+-- созданы раньше через @Index + ddl-auto, поэтому везде IF NOT EXISTS.
+
+-- Аренды фоновых задач: таблица появилась после базовой схемы,
+-- в БД, созданных через ddl-auto, ее может не быть
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name        VARCHAR(100) PRIMARY KEY,
+    owner       VARCHAR(255) NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL
+);
+
+-- answers: findByAttempt / findByAttemptAndQuestion / загрузка ответов попытки
+CREATE INDEX IF NOT EXISTS idx_answers_attempt_question ON answers (attempt_id, question_id);
+-- answers: FK на вопрос (удаление вопросов, отчеты по вопросу)
+CREATE INDEX IF NOT EXISTS idx_answers_question ON answers (question_id);
+
+-- user_selected_options: fetch join выбранных вариантов по ответу
+CREATE INDEX IF NOT EXISTS idx_user_selected_options_answer ON user_selected_options (answer_id);
+
+-- attempts: findByUserAndTest / findByUser
+CREATE INDEX IF NOT EXISTS idx_attempts_user_test ON attempts (user_id, test_id);
+-- attempts: findByUserAndStatus
+CREATE INDEX IF NOT EXISTS idx_attempts_user_status ON attempts (user_id, status);
+-- attempts: findByStatus / findByStatusWithDetails (ORDER BY completed_at DESC)
+CREATE INDEX IF NOT EXISTS idx_attempts_status_completed ON attempts (status, completed_at DESC);
+-- attempts: keyset-страницы HR по тестам / findByTest
+CREATE INDEX IF NOT EXISTS idx_attempts_test_id_id ON attempts (test_id, id);
+-- attempts: дедлайны открытых попыток (колесо таймеров и страховочная проверка)
+CREATE INDEX IF NOT EXISTS idx_attempts_open_auto_submit ON attempts (auto_submit_at)
+    WHERE status = 'IN_PROGRESS';
+
+-- test_assignments: доступные тесты сотрудника (равенства + дедлайн)
+DROP INDEX IF EXISTS idx_test_assignments_user_active;
+CREATE INDEX IF NOT EXISTS idx_test_assignments_user_active_deadline
+    ON test_assignments (user_id, is_active, is_completed, deadline);
+-- test_assignments: findByTest / findByUserAndTest со стороны теста
+CREATE INDEX IF NOT EXISTS idx_test_assignments_test_user ON test_assignments (test_id, user_id);
+-- test_assignments: findByAssignedBy
+CREATE INDEX IF NOT EXISTS idx_test_assignments_assigned_by ON test_assignments (assigned_by);
+-- test_assignments: деактивация просроченных назначений
+CREATE INDEX IF NOT EXISTS idx_test_assignments_overdue ON test_assignments (deadline)
+    WHERE is_active = true AND is_completed = false AND deadline IS NOT NULL;
+
+-- tests: findByCreatedBy / findByCreatedByAndIsActiveTrue / фильтр HR
+DROP INDEX IF EXISTS idx_tests_created_by;
+CREATE INDEX IF NOT EXISTS idx_tests_created_by_active ON tests (created_by, is_active);
+-- tests: findByIsActiveTrue
+CREATE INDEX IF NOT EXISTS idx_tests_active ON tests (id) WHERE is_active = true;
+
+-- questions: вопросы теста по порядку (findByTest*, nextOrderIndex)
+CREATE INDEX IF NOT EXISTS idx_questions_test_order ON questions (test_id, order_index);
+
+-- answer_options: варианты вопроса по порядку
+CREATE INDEX IF NOT EXISTS idx_answer_options_question_order ON answer_options (question_id, order_index);
+
+-- users: findByRole
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role);
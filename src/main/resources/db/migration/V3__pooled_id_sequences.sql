@@ -0,0 +1,40 @@
+-- Последовательности вместо IDENTITY: Hibernate получает id блоками по 50
+-- (pooled-оптимизатор, один nextval на 50 строк) и может группировать INSERT в JDBC-батчи.
+-- INCREMENT BY должен совпадать с allocationSize в @SequenceGenerator.
+-- setval(..., max + 50, false): первый nextval вернет max + 50, Hibernate выдаст id max+1..max+50.
+
+CREATE SEQUENCE IF NOT EXISTS questions_seq INCREMENT BY 50;
+SELECT setval('questions_seq', COALESCE((SELECT MAX(id) FROM questions), 0) + 50, false);
+ALTER TABLE questions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE questions ALTER COLUMN id SET DEFAULT nextval('questions_seq');
+ALTER SEQUENCE questions_seq OWNED BY questions.id;
+
+CREATE SEQUENCE IF NOT EXISTS answer_options_seq INCREMENT BY 50;
+SELECT setval('answer_options_seq', COALESCE((SELECT MAX(id) FROM answer_options), 0) + 50, false);
+ALTER TABLE answer_options ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE answer_options ALTER COLUMN id SET DEFAULT nextval('answer_options_seq');
+ALTER SEQUENCE answer_options_seq OWNED BY answer_options.id;
+
+CREATE SEQUENCE IF NOT EXISTS attempts_seq INCREMENT BY 50;
+SELECT setval('attempts_seq', COALESCE((SELECT MAX(id) FROM attempts), 0) + 50, false);
+ALTER TABLE attempts ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE attempts ALTER COLUMN id SET DEFAULT nextval('attempts_seq');
+ALTER SEQUENCE attempts_seq OWNED BY attempts.id;
+
+CREATE SEQUENCE IF NOT EXISTS answers_seq INCREMENT BY 50;
+SELECT setval('answers_seq', COALESCE((SELECT MAX(id) FROM answers), 0) + 50, false);
+ALTER TABLE answers ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE answers ALTER COLUMN id SET DEFAULT nextval('answers_seq');
+ALTER SEQUENCE answers_seq OWNED BY answers.id;
+
+CREATE SEQUENCE IF NOT EXISTS user_selected_options_seq INCREMENT BY 50;
+SELECT setval('user_selected_options_seq', COALESCE((SELECT MAX(id) FROM user_selected_options), 0) + 50, false);
+ALTER TABLE user_selected_options ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE user_selected_options ALTER COLUMN id SET DEFAULT nextval('user_selected_options_seq');
+ALTER SEQUENCE user_selected_options_seq OWNED BY user_selected_options.id;
+
+CREATE SEQUENCE IF NOT EXISTS test_assignments_seq INCREMENT BY 50;
+SELECT setval('test_assignments_seq', COALESCE((SELECT MAX(id) FROM test_assignments), 0) + 50, false);
+ALTER TABLE test_assignments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE test_assignments ALTER COLUMN id SET DEFAULT nextval('test_assignments_seq');
+ALTER SEQUENCE test_assignments_seq OWNED BY test_assignments.id;
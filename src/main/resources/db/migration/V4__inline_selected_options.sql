@@ -0,0 +1,29 @@
+-- Выбранные варианты хранятся прямо в строке ответа: чтение и запись ответа
+-- больше не требуют второй таблицы, а повторный ответ - это один UPDATE вместо DELETE + INSERT
+
+ALTER TABLE answers ADD COLUMN IF NOT EXISTS selected_option_ids BIGINT[];
+
+-- Перенос из user_selected_options с сохранением порядка выбора
+UPDATE answers a
+SET selected_option_ids = s.option_ids
+FROM (SELECT answer_id, array_agg(option_id ORDER BY id) AS option_ids
+      FROM user_selected_options
+      GROUP BY answer_id) s
+WHERE s.answer_id = a.id;
+
+-- Проверка переноса: у каждого ответа со старыми строками массив той же длины.
+-- Иначе миграция откатывается целиком
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1
+               FROM (SELECT answer_id, count(*) AS option_count
+                     FROM user_selected_options
+                     GROUP BY answer_id) s
+                        JOIN answers a ON a.id = s.answer_id
+               WHERE cardinality(a.selected_option_ids) IS DISTINCT FROM s.option_count::int) THEN
+        RAISE EXCEPTION 'selected_option_ids backfill does not match user_selected_options';
+    END IF;
+END $$;
+
+-- user_selected_options остается как копия старых данных и для отката приложения;
+-- удаляется отдельной миграцией после проверки колонки selected_option_ids
@@ -0,0 +1,18 @@
+-- Агрегаты по вопросам в строке теста: списки тестов и попыток читают их
+-- без загрузки коллекции вопросов. Дальше их поддерживает TestService.
+
+ALTER TABLE tests ADD COLUMN IF NOT EXISTS question_count     INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE tests ADD COLUMN IF NOT EXISTS max_possible_score INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE tests ADD COLUMN IF NOT EXISTS has_open_questions BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE tests t
+SET question_count     = q.question_count,
+    max_possible_score = q.max_possible_score,
+    has_open_questions = q.has_open_questions
+FROM (SELECT test_id,
+             COUNT(*)                                   AS question_count,
+             COALESCE(SUM(max_score), 0)                AS max_possible_score,
+             BOOL_OR(question_type = 'OPEN_ANSWER')     AS has_open_questions
+      FROM questions
+      GROUP BY test_id) q
+WHERE q.test_id = t.id;
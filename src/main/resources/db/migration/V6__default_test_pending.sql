@@ -0,0 +1,4 @@
+-- Стартовый тест HR создается из шаблона после регистрации (или при первом
+-- открытии списка тестов), флаг отмечает HR, которым копия еще не выдана.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS default_test_pending BOOLEAN NOT NULL DEFAULT FALSE;
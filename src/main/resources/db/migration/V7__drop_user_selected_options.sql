@@ -0,0 +1,6 @@
+-- Старая таблица выбранных вариантов больше не нужна: с V4 приложение читает и пишет
+-- только answers.selected_option_ids, перенос проверен в V4. Заново сверять здесь нельзя:
+-- ответы, измененные после V4, законно расходятся со старыми строками
+
+-- Вместе с таблицей удаляются ее индекс и последовательность id
+DROP TABLE user_selected_options;
@@ -199,6 +199,15 @@ class ApiService {
         return this.handleResponse(response);
     }
 
+    // Статус фонового назначения (большие группы сотрудников)
+    async getAssignmentJob(jobId) {
+        const response = await fetch(`${API_BASE_URL}/hr/assignment-jobs/${jobId}`, {
+            headers: this.getHeaders()
+        });
+
+        return this.handleResponse(response);
+    }
+
     // Employee функционал
     async getAvailableTests() {
         console.log('Fetching available tests for employee...');
@@ -269,6 +278,39 @@ class ApiService {
         return this.handleResponse(response);
     }
 
+    // Сохранение ответа с легковесным ответом сервера (только дельта прогресса)
+    async submitAnswerDelta(attemptId, answerData) {
+        const response = await fetch(`${API_BASE_URL}/employee/attempts/${attemptId}/answers/delta`, {
+            method: 'POST',
+            headers: this.getHeaders(),
+            body: JSON.stringify(answerData)
+        });
+
+        return this.handleResponse(response);
+    }
+
+    // Полная карта прогресса по вопросам
+    async getProgressMap(attemptId) {
+        const response = await fetch(`${API_BASE_URL}/employee/attempts/${attemptId}/progress-map`, {
+            headers: this.getHeaders()
+        });
+
+        return this.handleResponse(response);
+    }
+
+    // Пакетное сохранение нескольких ответов одним запросом (автосохранение)
+    async submitAnswersBatch(attemptId, answers) {
+        console.log('Submitting answers batch:', { attemptId, count: answers.length });
+
+        const response = await fetch(`${API_BASE_URL}/employee/attempts/${attemptId}/answers/batch`, {
+            method: 'POST',
+            headers: this.getHeaders(),
+            body: JSON.stringify({ answers })
+        });
+
+        return this.handleResponse(response);
+    }
+
     async completeTest(attemptId) {
         console.log('Completing test attempt:', attemptId);
         const response = await fetch(`${API_BASE_URL}/employee/attempts/${attemptId}/complete`, {
@@ -370,10 +412,18 @@ class ApiService {
         return this.handleResponse(response);
     }
 
-    // Для HR: получить все попытки
-    async getAllAttempts() {
-        console.log('Fetching all attempts for HR...');
-        const response = await fetch(`${API_BASE_URL}/hr/attempts/all`, {
+    // Для HR: страница попыток (params: cursor, size, statuses, testId, from, to)
+    async getAllAttempts(params = {}) {
+        const query = new URLSearchParams(params).toString();
+        const response = await fetch(`${API_BASE_URL}/hr/attempts/all${query ? '?' + query : ''}`, {
+            headers: this.getHeaders()
+        });
+        return this.handleResponse(response);
+    }
+
+    // Для HR: количество попыток по статусам
+    async getAttemptStatusCounts() {
+        const response = await fetch(`${API_BASE_URL}/hr/attempts/status-counts`, {
             headers: this.getHeaders()
         });
         return this.handleResponse(response);
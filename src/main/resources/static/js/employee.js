@@ -436,7 +436,7 @@ class EmployeeService {
     }
 
     async autoSaveProgress() {
-        // Автоматически сохраняем текущий ответ
+        // Автоматически сохраняем текущий ответ вместе с уже сохраненными в sessionStorage
         const question = await this.getCurrentQuestion();
         if (!question) return;
 
@@ -455,9 +455,21 @@ class EmployeeService {
             }
         }
 
+        const savedAnswers = JSON.parse(sessionStorage.getItem('savedAnswers') || '{}');
         if (Object.keys(answerData).length > 0) {
+            savedAnswers[questionId] = answerData;
+        }
+
+        // Одним запросом; неизменившиеся ответы сервер пропускает
+        const answers = Object.entries(savedAnswers).map(([id, data]) => ({
+            questionId: parseInt(id),
+            ...data
+        }));
+
+        if (answers.length > 0) {
             try {
-                await this.api.submitAnswer(this.currentAttempt, questionId, answerData);
+                await this.api.submitAnswersBatch(this.currentAttempt, answers);
+                sessionStorage.setItem('savedAnswers', JSON.stringify(savedAnswers));
                 console.log('Автосохранение выполнено');
             } catch (error) {
                 console.error('Ошибка автосохранения:', error);
@@ -509,7 +521,8 @@ class EmployeeService {
             'IN_PROGRESS': 'В процессе',
             'COMPLETED': 'Завершен',
             'EVALUATING': 'На проверке',
-            'EVALUATED': 'Проверен'
+            'EVALUATED': 'Проверен',
+            'AUTO_SUBMITTED': 'Завершен по времени'
         };
         return statuses[status] || status;
     }
@@ -0,0 +1,46 @@
+package org.legend8883.competencytestingsystem;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Код приложения пишет через SLF4J: System.out/err синхронизирован и на горячих путях
+ * (прогресс попытки, ответы) стоит дороже самого запроса.
+ */
+class NoConsoleOutputTest {
+
+    private static final Pattern CONSOLE_OUTPUT = Pattern.compile("System\\.(out|err)\\.|\\.printStackTrace\\(");
+
+    @Test
+    void mainSourcesDoNotWriteToConsole() throws IOException {
+        try (Stream<Path> sources = Files.walk(Path.of("src/main/java"))) {
+            List<String> offenders = sources
+                    .filter(path -> path.toString().endsWith(".java"))
+                    .flatMap(NoConsoleOutputTest::consoleOutputLines)
+                    .toList();
+
+            assertEquals(List.of(), offenders);
+        }
+    }
+
+    private static Stream<String> consoleOutputLines(Path source) {
+        try {
+            List<String> lines = Files.readAllLines(source);
+            return IntStream.range(0, lines.size())
+                    .filter(i -> CONSOLE_OUTPUT.matcher(lines.get(i)).find())
+                    .mapToObj(i -> source + ":" + (i + 1) + ": " + lines.get(i).trim());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
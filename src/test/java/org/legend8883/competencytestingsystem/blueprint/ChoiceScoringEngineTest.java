@@ -0,0 +1,142 @@
+package org.legend8883.competencytestingsystem.blueprint;
+
+import org.junit.jupiter.api.Test;
+import org.legend8883.competencytestingsystem.entity.AnswerOption;
+import org.legend8883.competencytestingsystem.entity.Question;
+import org.legend8883.competencytestingsystem.entity.QuestionType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChoiceScoringEngineTest {
+
+    private static final int CASES = 20_000;
+
+    @Test
+    void matchesLegacyScoringOnRandomQuestions() {
+        Random random = new Random(8883);
+
+        for (int i = 0; i < CASES; i++) {
+            QuestionType type = random.nextBoolean() ? QuestionType.SINGLE_CHOICE : QuestionType.MULTIPLE_CHOICE;
+            // До 80 вариантов, чтобы покрыть и маску в одном long, и BitSet
+            Question question = randomQuestion(random, type, 1 + random.nextInt(80));
+            List<Long> selected = randomSelection(random, question);
+
+            int expected = legacyScore(question, selected);
+            int actual = ChoiceScoringEngine.score(QuestionBlueprint.from(question), selected);
+
+            assertEquals(expected, actual, "case " + i + ": " + type + ", selected=" + selected);
+        }
+    }
+
+    // Единственное расхождение со старым подсчетом: повторы во множественном выборе не суммируются
+    @Test
+    void countsRepeatedOptionOnce() {
+        Random random = new Random(8884);
+
+        for (int optionCount : new int[]{4, 80}) {
+            Question question = randomQuestion(random, QuestionType.MULTIPLE_CHOICE, optionCount);
+            question.getOptions().forEach(option -> option.setIsCorrect(false));
+            question.getOptions().get(0).setIsCorrect(true);
+            question.getOptions().get(1).setIsCorrect(true);
+            QuestionBlueprint blueprint = QuestionBlueprint.from(question);
+            Long correct = question.getOptions().get(0).getId();
+            Long wrong = question.getOptions().get(2).getId();
+
+            assertEquals(legacyScore(question, List.of(correct)),
+                    ChoiceScoringEngine.score(blueprint, List.of(correct, correct, correct)));
+            assertEquals(0, ChoiceScoringEngine.score(blueprint, List.of(correct, wrong, wrong)));
+        }
+    }
+
+    @Test
+    void repeatedSingleChoiceOptionScoresZero() {
+        Question question = randomQuestion(new Random(2), QuestionType.SINGLE_CHOICE, 4);
+        question.getOptions().get(0).setIsCorrect(true);
+        Long correct = question.getOptions().get(0).getId();
+
+        assertEquals(0, ChoiceScoringEngine.score(QuestionBlueprint.from(question), List.of(correct, correct)));
+    }
+
+    @Test
+    void rejectsOptionFromAnotherQuestion() {
+        Question question = randomQuestion(new Random(1), QuestionType.MULTIPLE_CHOICE, 4);
+        QuestionBlueprint blueprint = QuestionBlueprint.from(question);
+
+        assertThrows(RuntimeException.class,
+                () -> ChoiceScoringEngine.score(blueprint, List.of(question.getOptions().get(0).getId(), -1L)));
+    }
+
+    private Question randomQuestion(Random random, QuestionType type, int optionCount) {
+        Question question = new Question();
+        question.setId(random.nextLong(1, 1_000_000));
+        question.setType(type);
+        question.setMaxScore(1 + random.nextInt(100));
+
+        long optionId = random.nextLong(1, 1_000_000);
+        for (int j = 0; j < optionCount; j++) {
+            AnswerOption option = new AnswerOption();
+            option.setId(optionId + j * 7L);
+            option.setText("option " + j);
+            option.setOrderIndex(j);
+            option.setIsCorrect(random.nextInt(3) == 0);
+            option.setQuestion(question);
+            question.getOptions().add(option);
+        }
+        return question;
+    }
+
+    private List<Long> randomSelection(Random random, Question question) {
+        List<Long> ids = new ArrayList<>();
+        for (AnswerOption option : question.getOptions()) {
+            ids.add(option.getId());
+        }
+        Collections.shuffle(ids, random);
+
+        int size = random.nextInt(4) == 0 ? 1 : random.nextInt(ids.size() + 1);
+        return new ArrayList<>(ids.subList(0, size));
+    }
+
+    // Реализация AttemptService до перехода на битовые маски
+    private int legacyScore(Question question, List<Long> selectedOptionIds) {
+        if (question.getType() == QuestionType.SINGLE_CHOICE) {
+            if (selectedOptionIds.size() != 1) {
+                return 0;
+            }
+
+            Long selectedId = selectedOptionIds.get(0);
+            AnswerOption selectedOption = question.getOptions().stream()
+                    .filter(option -> option.getId().equals(selectedId))
+                    .findFirst()
+                    .orElseThrow();
+
+            return selectedOption.getIsCorrect() ? question.getMaxScore() : 0;
+        }
+
+        List<Long> correctOptionIds = question.getCorrectOptions().stream()
+                .map(AnswerOption::getId)
+                .toList();
+
+        long correctSelected = selectedOptionIds.stream()
+                .filter(correctOptionIds::contains)
+                .count();
+
+        long incorrectSelected = selectedOptionIds.stream()
+                .filter(id -> !correctOptionIds.contains(id))
+                .count();
+
+        if (correctOptionIds.isEmpty()) {
+            return 0;
+        }
+
+        double score = Math.max(0, (correctSelected - incorrectSelected))
+                / (double) correctOptionIds.size()
+                * question.getMaxScore();
+        return (int) Math.round(score);
+    }
+}
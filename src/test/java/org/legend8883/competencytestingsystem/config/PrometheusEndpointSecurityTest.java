@@ -0,0 +1,48 @@
+package org.legend8883.competencytestingsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.legend8883.competencytestingsystem.support.TestDatabase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.metrics.scraper.username=scraper",
+        "app.metrics.scraper.password=scrape-secret"
+})
+@AutoConfigureMockMvc
+class PrometheusEndpointSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @Test
+    void anonymousScrapeIsRejected() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("scraper", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void scraperReadsMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("scraper", "scrape-secret")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,112 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.legend8883.competencytestingsystem.support.TestDatabase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL ключевых эндпоинтов экзамена на встроенном PostgreSQL.
+ * Рост числа запросов (N+1, загрузка лишних коллекций) ломает тест.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EndpointStatementCountTest {
+
+    private static final String PASSWORD = "statement-count";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private String employeeToken;
+    private long testId;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @BeforeEach
+    void assignDefaultTest() throws Exception {
+        String suffix = UUID.randomUUID().toString();
+        String hrEmail = "hr-" + suffix + "@example.com";
+        String employeeEmail = "employee-" + suffix + "@example.com";
+
+        register("/api/auth/register-hr", hrEmail);
+        String hrToken = login(hrEmail);
+        testId = call(get("/api/hr/tests"), hrToken, null).path("data").get(0).path("id").asLong();
+
+        long employeeId = register("/api/auth/register", employeeEmail).path("userId").asLong();
+        call(post("/api/hr/tests/" + testId + "/assign"), hrToken,
+                Map.of("userIds", new long[]{employeeId}));
+        employeeToken = login(employeeEmail);
+    }
+
+    @Test
+    void startTestStaysWithinStatementBudget() throws Exception {
+        try (StatementCapture capture = StatementCapture.start()) {
+            call(post("/api/employee/tests/start"), employeeToken, Map.of("testId", testId));
+            // Проверки назначения и попытки, снимок теста, вставки попытки и ответов, чтение ответов;
+            // плюс до двух nextval, когда пул идентификаторов attempts/answers исчерпан
+            capture.assertAtMost(8);
+        }
+    }
+
+    @Test
+    void progressStaysWithinStatementBudget() throws Exception {
+        long attemptId = call(post("/api/employee/tests/start"), employeeToken, Map.of("testId", testId))
+                .path("data").path("attemptId").asLong();
+
+        try (StatementCapture capture = StatementCapture.start()) {
+            call(get("/api/employee/attempts/" + attemptId + "/progress"), employeeToken, null);
+            // Попытка и ее ответы; вопросы берутся из снимка теста
+            capture.assertCount(2);
+        }
+    }
+
+    private JsonNode register(String path, String email) throws Exception {
+        return call(post(path), null, Map.of(
+                "email", email,
+                "firstName", "Statement",
+                "lastName", "Count",
+                "password", PASSWORD,
+                "confirmPassword", PASSWORD)).path("data");
+    }
+
+    private String login(String email) throws Exception {
+        return call(post("/api/auth/login"), null, Map.of("email", email, "password", PASSWORD))
+                .path("data").path("token").asString();
+    }
+
+    private JsonNode call(MockHttpServletRequestBuilder request, String token, Object body) throws Exception {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+        }
+        String response = mockMvc.perform(request)
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
@@ -0,0 +1,62 @@
+package org.legend8883.competencytestingsystem.monitoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementCaptureTest {
+
+    private final StatementCountingInspector inspector = new StatementCountingInspector();
+
+    @Test
+    void fingerprintIgnoresLiteralsAndListLength() {
+        String first = SqlFingerprint.of("select a1_0.id from answers a1_0 where a1_0.attempt_id=42 and a1_0.id in (?, ?, ?)");
+        String second = SqlFingerprint.of("select a1_0.id   from answers a1_0\n where a1_0.attempt_id=7 and a1_0.id in (?,?)");
+
+        assertEquals(first, second);
+        assertEquals("select a1_0.id from answers a1_0 where a1_0.attempt_id=? and a1_0.id in (?...)", first);
+        assertEquals("select * from users where email=?", SqlFingerprint.of("select * from users where email='it''s'"));
+    }
+
+    @Test
+    void nestedCapturesSeeOnlyStatementsAfterTheirStart() {
+        try (StatementCapture outer = StatementCapture.start()) {
+            inspector.inspect("select * from tests where id=1");
+            try (StatementCapture inner = StatementCapture.start()) {
+                inspector.inspect("select * from questions where id=1");
+                inspector.inspect("select * from questions where id=2");
+
+                inner.assertCount(2);
+                assertEquals(Map.entry("select * from questions where id=?", 2), inner.top(1).getFirst());
+            }
+            inspector.inspect("select * from tests where id=2");
+
+            outer.assertCount(4);
+        }
+    }
+
+    @Test
+    void assertionListsFingerprintsWhenOverBudget() {
+        try (StatementCapture capture = StatementCapture.start()) {
+            for (long id = 1; id <= 3; id++) {
+                inspector.inspect("select * from questions where id=" + id);
+            }
+
+            AssertionError error = assertThrows(AssertionError.class, () -> capture.assertAtMost(2));
+            assertTrue(error.getMessage().contains("3x select * from questions where id=?"), error.getMessage());
+        }
+    }
+
+    @Test
+    void closedCaptureStopsRecording() {
+        StatementCapture capture = StatementCapture.start();
+        capture.close();
+        inspector.inspect("select 1");
+
+        assertEquals(0, capture.count());
+    }
+}
@@ -0,0 +1,177 @@
+package org.legend8883.competencytestingsystem.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    // Тик 1 мс и колесо из 4 ячеек: уровни покрывают 4, 16 и 64 тика, границы легко перебрать
+    private static final int WHEEL_SIZE = 4;
+
+    @Test
+    void firesAtDeadlineAndNotBefore() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(10, WHEEL_SIZE, 2, 0);
+        wheel.schedule(1, 25);
+
+        // Дедлайн округляется вверх до тика 3 (30 мс)
+        assertEquals(List.of(), wheel.advance(29));
+        assertEquals(List.of(1L), wheel.advance(30));
+        assertEquals(List.of(), wheel.advance(100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimerDoesNotFire() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1, WHEEL_SIZE, 2, 0);
+        wheel.schedule(1, 3);
+        wheel.schedule(2, 3);
+        wheel.cancel(1);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(2L), wheel.advance(3));
+    }
+
+    @Test
+    void rescheduleKeepsOnlyLatestDeadline() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1, WHEEL_SIZE, 2, 0);
+        wheel.schedule(1, 3);
+        wheel.schedule(1, 9);
+
+        assertEquals(List.of(), wheel.advance(8));
+        assertEquals(List.of(1L), wheel.advance(9));
+
+        // Перенос на более ранний срок тоже работает: старая запись на тике 12 игнорируется
+        wheel.schedule(2, 12);
+        wheel.schedule(2, 10);
+        assertEquals(List.of(2L), wheel.advance(10));
+        assertEquals(List.of(), wheel.advance(12));
+    }
+
+    @Test
+    void cascadesFromUpperLevelsIntoLevelZero() {
+        // Старт не на границе интервала, чтобы дедлайны попадали в ячейки с переносом по кругу
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1, WHEEL_SIZE, 3, 3);
+        long[] deadlines = {4, 7, 8, 18, 19, 20, 35, 66};
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i, deadlines[i]);
+        }
+
+        Map<Long, Long> firedAt = advanceTickByTick(wheel, 3, 70);
+
+        for (int i = 0; i < deadlines.length; i++) {
+            assertEquals(deadlines[i], firedAt.get((long) i), "timer " + i);
+        }
+    }
+
+    @Test
+    void reinsertsOverflowUntilDeadlineFits() {
+        // Два уровня покрывают 16 тиков, все дальше уходит в overflow
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1, WHEEL_SIZE, 2, 5);
+        wheel.schedule(1, 21);
+        wheel.schedule(2, 47);
+        wheel.schedule(3, 48);
+        wheel.schedule(4, 100);
+
+        Map<Long, Long> firedAt = advanceTickByTick(wheel, 5, 120);
+
+        assertEquals(Map.of(1L, 21L, 2L, 47L, 3L, 48L, 4L, 100L), firedAt);
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextAdvance() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(10, WHEEL_SIZE, 2, 1_000);
+        wheel.schedule(1, 500);
+        wheel.schedule(2, 1_000);
+
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(1L, 2L), wheel.advance(1_000));
+        assertEquals(List.of(), wheel.advance(1_010));
+    }
+
+    @Test
+    void singleAdvanceCrossesManySlots() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1, WHEEL_SIZE, 3, 0);
+        wheel.schedule(1, 2);
+        wheel.schedule(2, 17);
+        wheel.schedule(3, 63);
+        wheel.schedule(4, 200);
+        wheel.schedule(5, 64);
+
+        // Прыжок через уровни 0 и 1 и часть уровня 2 за один вызов, порядок - по дедлайнам
+        assertEquals(List.of(1L, 2L, 3L, 5L), wheel.advance(150));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(4L), wheel.advance(1_000));
+    }
+
+    @Test
+    void matchesNaiveSchedulerOnRandomOperations() {
+        Random random = new Random(8883);
+        long now = random.nextInt(1_000);
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1, WHEEL_SIZE, 3, now);
+        Map<Long, Long> expected = new HashMap<>();
+        // Просроченный на момент schedule таймер срабатывает сразу и ждет ближайшего advance
+        List<Long> firedOnSchedule = new ArrayList<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(200);
+            int operation = random.nextInt(10);
+            if (operation < 6) {
+                long deadline = now - 5 + random.nextInt(300);
+                wheel.schedule(id, deadline);
+                if (deadline <= now) {
+                    expected.remove(id);
+                    firedOnSchedule.add(id);
+                } else {
+                    expected.put(id, deadline);
+                }
+            } else if (operation < 7) {
+                wheel.cancel(id);
+                expected.remove(id);
+            } else {
+                now += random.nextInt(operation == 9 ? 100 : 5);
+                long current = now;
+                List<Long> due = new ArrayList<>(firedOnSchedule);
+                firedOnSchedule.clear();
+                expected.forEach((timer, deadline) -> {
+                    if (deadline <= current) {
+                        due.add(timer);
+                    }
+                });
+                expected.values().removeIf(deadline -> deadline <= current);
+
+                List<Long> fired = new ArrayList<>(wheel.advance(now));
+                fired.sort(null);
+                due.sort(null);
+                assertEquals(due, fired, "step " + step + " at " + now);
+            }
+            assertEquals(expected.size(), wheel.size(), "step " + step);
+        }
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(0, WHEEL_SIZE, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(1, 1, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel(1, WHEEL_SIZE, 0, 0));
+    }
+
+    // Продвигает колесо по одному тику и запоминает, на каком тике сработал каждый таймер
+    private Map<Long, Long> advanceTickByTick(HierarchicalTimingWheel wheel, long fromMs, long toMs) {
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long now = fromMs; now <= toMs; now++) {
+            for (Long id : wheel.advance(now)) {
+                assertTrue(firedAt.putIfAbsent(id, now) == null, "timer " + id + " fired twice");
+            }
+        }
+        return firedAt;
+    }
+}
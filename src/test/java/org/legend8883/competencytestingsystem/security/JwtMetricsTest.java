@@ -0,0 +1,57 @@
+package org.legend8883.competencytestingsystem.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.legend8883.competencytestingsystem.entity.Role;
+import org.legend8883.competencytestingsystem.support.TestDatabase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверка JWT видна в метриках: таймер app.jwt{operation=verify} из @Timed на JwtUtil.verify
+ * и счетчики попаданий и промахов кэша из JwtMetrics.
+ */
+@SpringBootTest
+class JwtMetricsTest {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @Test
+    void verificationIsTimedAndCountedByCacheResult() {
+        String cachedToken = jwtUtil.generateToken(System.nanoTime(), "metrics@example.com", Role.EMPLOYEE);
+        String freshToken = jwtUtil.generateToken(System.nanoTime() + 1, "metrics@example.com", Role.EMPLOYEE);
+        jwtUtil.verify(cachedToken);
+
+        Timer timer = meterRegistry.get("app.jwt").tag("operation", "verify").timer();
+        long timed = timer.count();
+        double hits = cacheRequests("hit");
+        double misses = cacheRequests("miss");
+
+        jwtUtil.verify(cachedToken);
+        jwtUtil.verify(freshToken);
+
+        assertEquals(timed + 2, timer.count());
+        assertEquals(hits + 1, cacheRequests("hit"));
+        assertEquals(misses + 1, cacheRequests("miss"));
+    }
+
+    private double cacheRequests(String result) {
+        FunctionCounter counter = meterRegistry.get("app.jwt.cache.requests").tag("result", result).functionCounter();
+        return counter.count();
+    }
+}
@@ -0,0 +1,35 @@
+package org.legend8883.competencytestingsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.legend8883.competencytestingsystem.dto.request.AssignTestRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class AssignmentJobServiceTest {
+
+    private final AssignmentJobService service =
+            new AssignmentJobService(mock(TestAssignmentService.class), 3, 60, false);
+
+    @Test
+    void repeatedIdsDoNotMakeRequestAsync() {
+        assertFalse(service.shouldRunAsync(request(new ArrayList<>(Collections.nCopies(10, 7L)))));
+        assertFalse(service.shouldRunAsync(request(List.of(1L, 2L, 3L, 1L, 2L, 3L))));
+    }
+
+    @Test
+    void distinctUsersAboveThresholdRunAsync() {
+        assertTrue(service.shouldRunAsync(request(List.of(1L, 2L, 3L, 4L))));
+    }
+
+    private static AssignTestRequest request(List<Long> userIds) {
+        AssignTestRequest request = new AssignTestRequest();
+        request.setUserIds(userIds);
+        return request;
+    }
+}
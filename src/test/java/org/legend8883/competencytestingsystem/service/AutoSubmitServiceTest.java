@@ -0,0 +1,50 @@
+package org.legend8883.competencytestingsystem.service;
+
+import org.junit.jupiter.api.Test;
+import org.legend8883.competencytestingsystem.config.AttemptSessionProperties;
+import org.legend8883.competencytestingsystem.repository.AttemptRepository;
+import org.legend8883.competencytestingsystem.session.AttemptSessionStore;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AutoSubmitServiceTest {
+
+    @Test
+    void sessionModeWaitsTwoFlushIntervalsAfterDeadline() {
+        Duration lag = submitLag(true, 5_000);
+
+        // Черновики других узлов успевают уйти в БД плановым сбросом до завершения попытки
+        assertEquals(Duration.ofSeconds(10), lag);
+    }
+
+    @Test
+    void withoutSessionModeAttemptsAreSubmittedAtDeadline() {
+        assertEquals(Duration.ZERO, submitLag(false, 5_000));
+    }
+
+    // Разница между моментом завершения и границей дедлайна в UPDATE автоотправки
+    private static Duration submitLag(boolean sessionEnabled, long flushIntervalMs) {
+        AttemptSessionProperties properties = new AttemptSessionProperties();
+        properties.setEnabled(sessionEnabled);
+        properties.setFlushIntervalMs(flushIntervalMs);
+        AttemptRepository attemptRepository = mock(AttemptRepository.class);
+        AutoSubmitService service = new AutoSubmitService(attemptRepository, mock(AttemptSessionStore.class), properties);
+
+        service.autoSubmit(List.of(1L, 2L));
+
+        ArgumentCaptor<LocalDateTime> dueBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(attemptRepository).autoSubmit(eq(List.of(1L, 2L)), dueBefore.capture(), now.capture());
+        assertTrue(!dueBefore.getValue().isAfter(now.getValue()));
+        return Duration.between(dueBefore.getValue(), now.getValue());
+    }
+}
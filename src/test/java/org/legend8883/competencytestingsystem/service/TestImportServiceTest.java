@@ -0,0 +1,174 @@
+package org.legend8883.competencytestingsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.legend8883.competencytestingsystem.dto.request.RegisterRequest;
+import org.legend8883.competencytestingsystem.dto.response.TestImportResponse;
+import org.legend8883.competencytestingsystem.dto.response.TestImportResultResponse;
+import org.legend8883.competencytestingsystem.support.TestDatabase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Потоковый импорт на встроенном PostgreSQL. Пачка из двух вопросов, чтобы каждый тест
+ * проходил через сброс пачки с очисткой контекста persistence.
+ */
+@SpringBootTest(properties = "app.import.batch-size=2")
+class TestImportServiceTest {
+
+    @Autowired
+    private TestImportService testImportService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long hrId;
+    private String suffix;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        TestDatabase.register(registry);
+    }
+
+    @BeforeEach
+    void registerHr() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail("import-" + suffix + "@example.com");
+        request.setFirstName("Import");
+        request.setLastName("Test");
+        request.setPassword("import-test");
+        request.setConfirmPassword("import-test");
+        hrId = authService.registerHr(request).getUserId();
+    }
+
+    @Test
+    void importsTestAndStoresAggregates() {
+        TestImportResponse response = importJson("[" + test("Java " + suffix,
+                choice("Что выведет 1 + 1?", "SINGLE_CHOICE", 2),
+                choice("Какие типы примитивные?", "MULTIPLE_CHOICE", 4),
+                open("Объясните работу сборщика мусора", 10),
+                choice("Какой модификатор у main?", "SINGLE_CHOICE", 1),
+                open("Что такое happens-before?", 5)) + "]");
+
+        assertEquals(1, response.getImportedCount());
+        assertEquals(0, response.getFailedCount());
+        TestImportResultResponse result = response.getResults().get(0);
+        assertTrue(result.isSuccess());
+        assertEquals(5, result.getQuestionCount());
+        assertStored(result.getTestId(), 5, 22, true);
+        assertEquals(6, count("SELECT count(*) FROM answer_options o JOIN questions q ON q.id = o.question_id "
+                + "WHERE q.test_id = ?", result.getTestId()));
+    }
+
+    @Test
+    void invalidQuestionRollsBackOnlyItsTest() {
+        String broken = "Сломанный " + suffix;
+        // Четвертый вопрос с нулевым баллом: первая пачка из двух вопросов уже записана и тоже откатывается
+        TestImportResponse response = importJson("[" + test(broken,
+                choice("Первый вопрос теста", "SINGLE_CHOICE", 1),
+                choice("Второй вопрос теста", "SINGLE_CHOICE", 1),
+                choice("Третий вопрос теста", "SINGLE_CHOICE", 1),
+                choice("Четвертый вопрос теста", "SINGLE_CHOICE", 0),
+                choice("Пятый вопрос теста", "SINGLE_CHOICE", 1))
+                + "," + test("Целый " + suffix,
+                choice("Единственный вопрос", "MULTIPLE_CHOICE", 3)) + "]");
+
+        assertEquals(1, response.getImportedCount());
+        assertEquals(1, response.getFailedCount());
+
+        TestImportResultResponse failed = response.getResults().get(0);
+        assertFalse(failed.isSuccess());
+        assertEquals(broken, failed.getTitle());
+        assertTrue(failed.getError().startsWith("Вопрос 4:"), failed.getError());
+        assertEquals(0, count("SELECT count(*) FROM tests WHERE title = ?", broken));
+
+        TestImportResultResponse imported = response.getResults().get(1);
+        assertTrue(imported.isSuccess());
+        assertEquals(1, imported.getIndex());
+        assertStored(imported.getTestId(), 1, 3, false);
+    }
+
+    @Test
+    void truncatedInputKeepsTestsBeforeIt() {
+        String truncated = "Обрезанный " + suffix;
+        String second = test(truncated,
+                choice("Вопрос до обрыва", "SINGLE_CHOICE", 1),
+                choice("Вопрос до обрыва 2", "SINGLE_CHOICE", 1),
+                open("Вопрос на обрыве", 5));
+        TestImportResponse response = importJson("[" + test("Полный " + suffix, open("Единственный открытый", 7))
+                + "," + second.substring(0, second.indexOf("Вопрос на обрыве")));
+
+        assertEquals(1, response.getImportedCount());
+        assertEquals(1, response.getFailedCount());
+        assertStored(response.getResults().get(0).getTestId(), 1, 7, true);
+
+        TestImportResultResponse failed = response.getResults().get(1);
+        assertFalse(failed.isSuccess());
+        assertTrue(failed.getError().startsWith("Некорректный JSON"), failed.getError());
+        assertEquals(0, count("SELECT count(*) FROM tests WHERE title = ?", truncated));
+    }
+
+    @Test
+    void readsJsonLinesAndRequiresHeaderBeforeQuestions() {
+        String headerLast = "{\"questions\": [" + open("Вопрос без заголовка", 3) + "], "
+                + "\"title\": \"Поздний заголовок " + suffix + "\", \"timeLimitMinutes\": 30, \"passingScore\": 1}";
+        TestImportResponse response = importJson(
+                test("Первая строка " + suffix, choice("Вопрос первой строки", "SINGLE_CHOICE", 2)) + "\n"
+                        + headerLast + "\n"
+                        + test("Третья строка " + suffix, open("Вопрос третьей строки", 4)) + "\n");
+
+        assertEquals(List.of(true, false, true),
+                response.getResults().stream().map(TestImportResultResponse::isSuccess).toList());
+        assertStored(response.getResults().get(0).getTestId(), 1, 2, false);
+        assertStored(response.getResults().get(2).getTestId(), 1, 4, true);
+        assertEquals(0, count("SELECT count(*) FROM tests WHERE title = ?", "Поздний заголовок " + suffix));
+    }
+
+    private TestImportResponse importJson(String json) {
+        return testImportService.importTests(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), hrId);
+    }
+
+    private void assertStored(Long testId, int questionCount, int maxPossibleScore, boolean hasOpenQuestions) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT question_count, max_possible_score, has_open_questions FROM tests WHERE id = ?", testId);
+        assertEquals(questionCount, row.get("question_count"));
+        assertEquals(maxPossibleScore, row.get("max_possible_score"));
+        assertEquals(hasOpenQuestions, row.get("has_open_questions"));
+        assertEquals(questionCount, count("SELECT count(*) FROM questions WHERE test_id = ?", testId));
+    }
+
+    private int count(String sql, Object argument) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, argument);
+    }
+
+    private static String test(String title, String... questions) {
+        return "{\"title\": \"" + title + "\", \"description\": \"Импорт\", \"timeLimitMinutes\": 30, "
+                + "\"passingScore\": 1, \"tags\": [\"skip\"], \"questions\": [" + String.join(", ", questions) + "]}";
+    }
+
+    private static String choice(String text, String type, int maxScore) {
+        return "{\"text\": \"" + text + "\", \"type\": \"" + type + "\", \"maxScore\": " + maxScore + ", "
+                + "\"options\": [{\"text\": \"Да\", \"isCorrect\": true}, {\"text\": \"Нет\", \"isCorrect\": false}]}";
+    }
+
+    private static String open(String text, int maxScore) {
+        return "{\"text\": \"" + text + "\", \"type\": \"OPEN_ANSWER\", \"maxScore\": " + maxScore + "}";
+    }
+}
@@ -0,0 +1,94 @@
+package org.legend8883.competencytestingsystem.session;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.legend8883.competencytestingsystem.config.AttemptSessionProperties;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AttemptSessionStoreTest {
+
+    private static final LocalDateTime ANSWERED_AT = LocalDateTime.of(2026, 1, 15, 10, 0);
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void restartReplaysDraftsOfCrashedRun() throws Exception {
+        AttemptSessionProperties properties = properties();
+        AttemptSessionStore crashed = new AttemptSessionStore(properties,
+                new AttemptSessionJournal(properties), mock(AttemptSessionWriter.class));
+        crashed.put(1L, AnswerDraft.choice(10L, List.of(100L), 5, ANSWERED_AT));
+        crashed.put(1L, AnswerDraft.open(11L, "first", ANSWERED_AT));
+        crashed.put(1L, AnswerDraft.open(11L, "second", ANSWERED_AT.plusMinutes(1)));
+        crashed.put(2L, AnswerDraft.choice(20L, List.of(200L, 201L), 3, ANSWERED_AT));
+
+        List<Map<Long, Map<Long, AnswerDraft>>> written = new ArrayList<>();
+        AttemptSessionWriter writer = recordingWriter(written);
+        AttemptSessionStore restarted = new AttemptSessionStore(properties,
+                new AttemptSessionJournal(properties), writer);
+
+        // Плановый сброс нового процесса не должен трогать журнал прошлого запуска
+        restarted.flushAll();
+        assertEquals(1, segmentCount());
+
+        restarted.afterSingletonsInstantiated();
+
+        assertEquals(1, written.size());
+        Map<Long, Map<Long, AnswerDraft>> replayed = written.getFirst();
+        assertEquals(List.of(100L), replayed.get(1L).get(10L).selectedOptionIds());
+        assertEquals("second", replayed.get(1L).get(11L).openAnswerText());
+        assertEquals(List.of(200L, 201L), replayed.get(2L).get(20L).selectedOptionIds());
+        assertEquals(0, segmentCount());
+    }
+
+    @Test
+    void failedReplayKeepsJournalForNextStart() throws Exception {
+        AttemptSessionProperties properties = properties();
+        new AttemptSessionStore(properties, new AttemptSessionJournal(properties), mock(AttemptSessionWriter.class))
+                .put(1L, AnswerDraft.open(11L, "answer", ANSWERED_AT));
+
+        AttemptSessionWriter failing = mock(AttemptSessionWriter.class);
+        when(failing.write(any())).thenThrow(new RuntimeException("database is down"));
+        AttemptSessionStore restarted = new AttemptSessionStore(properties,
+                new AttemptSessionJournal(properties), failing);
+        restarted.afterSingletonsInstantiated();
+        restarted.flushAll();
+
+        assertEquals(1, segmentCount());
+    }
+
+    private AttemptSessionProperties properties() {
+        AttemptSessionProperties properties = new AttemptSessionProperties();
+        properties.setEnabled(true);
+        properties.setJournalDir(journalDir.toString());
+        return properties;
+    }
+
+    private static AttemptSessionWriter recordingWriter(List<Map<Long, Map<Long, AnswerDraft>>> written) {
+        AttemptSessionWriter writer = mock(AttemptSessionWriter.class);
+        when(writer.write(any())).thenAnswer(invocation -> {
+            Map<Long, Map<Long, AnswerDraft>> drafts = invocation.getArgument(0);
+            written.add(drafts);
+            return drafts.values().stream().mapToInt(Map::size).sum();
+        });
+        return writer;
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.count();
+        }
+    }
+}
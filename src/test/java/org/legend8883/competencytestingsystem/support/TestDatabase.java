@@ -0,0 +1,41 @@
+package org.legend8883.competencytestingsystem.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+/**
+ * Встроенный PostgreSQL для интеграционных тестов: один экземпляр на JVM,
+ * схему создает Flyway приложения.
+ */
+public final class TestDatabase {
+
+    private static EmbeddedPostgres postgres;
+
+    private TestDatabase() {
+    }
+
+    // Для @DynamicPropertySource тестового класса
+    public static synchronized void register(DynamicPropertyRegistry registry) {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        EmbeddedPostgres database = postgres;
+        registry.add("spring.datasource.url", () -> database.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        try {
+            String journalDir = Files.createTempDirectory("test-session-journal").toString();
+            registry.add("app.session.journal-dir", () -> journalDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}